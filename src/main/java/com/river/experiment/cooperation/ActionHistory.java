@@ -0,0 +1,96 @@
+package com.river.experiment.cooperation;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 单方在一场对局中的动作历史，按位存放在 {@code long[]} 中（1 表示背叛），
+ * 并增量维护背叛次数，使“上一轮动作”“是否曾被背叛”等查询都是常数时间且不分配对象。
+ * <p>
+ * 锦标赛在各场对局之间复用同一实例，只在容量不足时扩容。
+ */
+public final class ActionHistory {
+
+    private long[] defections;
+    private int size;
+    private int defectionCount;
+
+    public ActionHistory(int expectedRounds) {
+        if (expectedRounds < 0) {
+            throw new IllegalArgumentException("预期轮数不能为负数。");
+        }
+        this.defections = new long[Math.max(1, (expectedRounds + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * 由动作列表构造历史，供仍以列表保存历史的调用方使用。
+     */
+    public static ActionHistory of(List<Action> actions) {
+        ActionHistory history = new ActionHistory(actions.size());
+        for (Action action : actions) {
+            history.record(action);
+        }
+        return history;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Action get(int round) {
+        Objects.checkIndex(round, size);
+        return (defections[round >>> 6] >>> round & 1L) != 0 ? Action.DEFECT : Action.COOPERATE;
+    }
+
+    /**
+     * 最近一轮的动作，历史为空时抛出 {@link IndexOutOfBoundsException}。
+     */
+    public Action last() {
+        return get(size - 1);
+    }
+
+    public int defectionCount() {
+        return defectionCount;
+    }
+
+    public boolean hasDefected() {
+        return defectionCount > 0;
+    }
+
+    /**
+     * 只读的列表视图，不复制底层位数组。
+     */
+    public List<Action> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Action get(int index) {
+                return ActionHistory.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    void record(Action action) {
+        int word = size >>> 6;
+        if (word == defections.length) {
+            defections = Arrays.copyOf(defections, defections.length * 2);
+        }
+        if (action == Action.DEFECT) {
+            defections[word] |= 1L << size;
+            defectionCount++;
+        }
+        size++;
+    }
+
+    void clear() {
+        Arrays.fill(defections, 0, (size + Long.SIZE - 1) / Long.SIZE, 0L);
+        size = 0;
+        defectionCount = 0;
+    }
+}
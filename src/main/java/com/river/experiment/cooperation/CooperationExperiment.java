@@ -7,6 +7,7 @@ import com.river.experiment.core.chart.ChartSeries;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 协同进化（重复囚徒困境）实验封装。
@@ -18,6 +19,7 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
     private final long seed;
     private final int agentsPerStrategy;
     private final int encounterRounds;
+    private final EvolutionParameters evolution;
 
     public CooperationExperiment() {
         this(new MatchSettings(
@@ -27,7 +29,13 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
                 5.0,
                 1.0,
                 0.0
-        ), defaultStrategies(), 2025L, 12, 30);
+        ), defaultStrategies(), 2025L, 12, 30, new EvolutionParameters(
+                100_000,
+                300,
+                EvolutionaryDynamics.FERMI,
+                1.0,
+                0.001
+        ));
     }
 
     public CooperationExperiment(MatchSettings settings,
@@ -35,11 +43,24 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
                                  long seed,
                                  int agentsPerStrategy,
                                  int encounterRounds) {
+        this(settings, strategies, seed, agentsPerStrategy, encounterRounds, null);
+    }
+
+    /**
+     * @param evolution 非空时在锦标赛之外，再按精确对局矩阵模拟策略在族群中的传播，并输出占比曲线
+     */
+    public CooperationExperiment(MatchSettings settings,
+                                 List<CooperationStrategy> strategies,
+                                 long seed,
+                                 int agentsPerStrategy,
+                                 int encounterRounds,
+                                 EvolutionParameters evolution) {
         this.settings = settings;
         this.strategies = List.copyOf(strategies);
         this.seed = seed;
         this.agentsPerStrategy = agentsPerStrategy;
         this.encounterRounds = encounterRounds;
+        this.evolution = evolution;
     }
 
     @Override
@@ -62,7 +83,10 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
                 encounterRounds
         );
         TournamentResult result = tournament.run();
-        return new CooperationReport(settings, strategies, result, agentsPerStrategy, encounterRounds);
+        EvolutionResult evolutionResult = evolution == null
+                ? null
+                : new StrategyEvolution(PayoffMatrix.exact(settings), strategies, evolution, seed).run();
+        return new CooperationReport(settings, strategies, result, agentsPerStrategy, encounterRounds, evolutionResult);
     }
 
     private static List<CooperationStrategy> defaultStrategies() {
@@ -88,17 +112,20 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
         private final TournamentResult result;
         private final int agentsPerStrategy;
         private final int encounterRounds;
+        private final EvolutionResult evolution;
 
         CooperationReport(MatchSettings settings,
                           List<CooperationStrategy> strategies,
                           TournamentResult result,
                           int agentsPerStrategy,
-                          int encounterRounds) {
+                          int encounterRounds,
+                          EvolutionResult evolution) {
             this.settings = settings;
             this.strategies = strategies;
             this.result = result;
             this.agentsPerStrategy = agentsPerStrategy;
             this.encounterRounds = encounterRounds;
+            this.evolution = evolution;
         }
 
         public MatchSettings settings() {
@@ -109,6 +136,13 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
             return result;
         }
 
+        /**
+         * 策略演化结果，未启用演化时为空。
+         */
+        public Optional<EvolutionResult> evolutionResult() {
+            return Optional.ofNullable(evolution);
+        }
+
         @Override
         public String sectionTitle() {
             return "噪声派对锦标赛：宽容策略如何赢下 96 人囚徒困境";
@@ -236,6 +270,25 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
                     averageMutualRate * 100
             ));
 
+            if (evolution != null) {
+                EvolutionParameters parameters = evolution.parameters();
+                CooperationStrategy dominant = evolution.dominantStrategy();
+                paragraphs.add("### 让成功者扩散：排行榜之外的演化视角");
+                paragraphs.add(String.format(
+                        "- 把同样的对局规则放进 %,d 人的族群：每次随机挑一人，按%s更新策略（选择强度 %.2f，突变率 %.2f%%），共演化 %d 代。",
+                        parameters.populationSize(),
+                        parameters.dynamics() == EvolutionaryDynamics.MORAN ? "莫兰过程" : "成对比较的费米规则",
+                        parameters.selectionIntensity(),
+                        parameters.mutationRate() * 100,
+                        evolution.sampleCount() - 1
+                ));
+                paragraphs.add(String.format(
+                        "- 最终%s占据 %.1f%% 的人口——排行榜只说明谁得分高，演化曲线才说明谁能把“得分优势”变成“人数优势”。",
+                        dominant.displayName(),
+                        evolution.finalShare(dominant) * 100
+                ));
+            }
+
             paragraphs.add("### 写稿小贴士（直接复制到排版里）");
             paragraphs.add("- 开头抛“误操作率 1.5% 挤爆协作”这句冲突，再嵌入冠军 vs. 亚军得分图，读者立刻代入。");
             paragraphs.add("- 中段用垫底角色做反面人物，穿插一则真实职场翻车案例，形成情绪共鸣。");
@@ -273,7 +326,7 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
                 agentScore.add(agents.get(i).meanScore());
             }
 
-            return List.of(
+            List<ChartAttachment> charts = new ArrayList<>(List.of(
                     new ChartAttachment(
                             "strategy-score-per-round.png",
                             "Average Score per Round by Strategy Rank",
@@ -295,7 +348,17 @@ public final class CooperationExperiment implements Experiment<CooperationExperi
                             "Total Score",
                             List.of(ChartSeries.of("Total Score", agentRankIndex, agentScore))
                     )
-            );
+            ));
+            if (evolution != null) {
+                charts.add(new ChartAttachment(
+                        "strategy-share-evolution.png",
+                        "Strategy Share over Generations",
+                        "Generation",
+                        "Population Share (%)",
+                        evolution.shareSeries()
+                ));
+            }
+            return charts;
         }
     }
 }
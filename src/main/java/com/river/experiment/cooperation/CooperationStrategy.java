@@ -14,11 +14,21 @@ public enum CooperationStrategy {
     ALWAYS_COOPERATE("永远合作", "无条件合作，代表极端的信任型角色。") {
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             return Action.COOPERATE;
         }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 1.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return 1.0;
+        }
     },
 
     /**
@@ -27,11 +37,21 @@ public enum CooperationStrategy {
     ALWAYS_DEFECT("永远背叛", "无条件背叛，体现完全自利与防御的角色。") {
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             return Action.DEFECT;
         }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 0.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return 0.0;
+        }
     },
 
     /**
@@ -40,13 +60,23 @@ public enum CooperationStrategy {
     TIT_FOR_TAT("以牙还牙", "先合作，再复刻对手上一轮动作的经典互惠策略。") {
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             if (roundIndex == 0) {
                 return Action.COOPERATE;
             }
-            return opponentHistory.get(roundIndex - 1);
+            return opponentHistory.last();
+        }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 1.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return opponentLast == Action.COOPERATE ? 1.0 : 0.0;
         }
     },
 
@@ -58,18 +88,28 @@ public enum CooperationStrategy {
 
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             if (roundIndex == 0) {
                 return Action.COOPERATE;
             }
-            Action opponentLast = opponentHistory.get(roundIndex - 1);
+            Action opponentLast = opponentHistory.last();
             if (opponentLast == Action.DEFECT && random.nextDouble() < FORGIVE_PROBABILITY) {
                 return Action.COOPERATE;
             }
             return opponentLast;
         }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 1.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return opponentLast == Action.COOPERATE ? 1.0 : FORGIVE_PROBABILITY;
+        }
     },
 
     /**
@@ -78,15 +118,24 @@ public enum CooperationStrategy {
     GRIM_TRIGGER("严厉惩罚者", "初始合作，但一旦发现背叛就永久惩罚。") {
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
-            boolean opponentEverDefected = opponentHistory.contains(Action.DEFECT);
-            if (opponentEverDefected) {
+            if (opponentHistory.hasDefected()) {
                 return Action.DEFECT;
             }
             return Action.COOPERATE;
         }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 1.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return opponentEverDefected ? 0.0 : 1.0;
+        }
     },
 
     /**
@@ -95,17 +144,28 @@ public enum CooperationStrategy {
     WIN_STAY_LOSE_SHIFT("赢则守输则换", "上一轮赢则保持动作，未赢则切换，代表经验主义角色。") {
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             if (roundIndex == 0) {
                 return Action.COOPERATE;
             }
-            Action lastSelf = selfHistory.get(roundIndex - 1);
-            Action lastOpponent = opponentHistory.get(roundIndex - 1);
+            Action lastSelf = selfHistory.last();
+            Action lastOpponent = opponentHistory.last();
             boolean lastRoundWin = lastSelf == lastOpponent;
             return lastRoundWin ? lastSelf : lastSelf.opposite();
         }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 1.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            Action next = selfLast == opponentLast ? selfLast : selfLast.opposite();
+            return next == Action.COOPERATE ? 1.0 : 0.0;
+        }
     },
 
     /**
@@ -114,13 +174,23 @@ public enum CooperationStrategy {
     SUSPICIOUS_TIT_FOR_TAT("怀疑型以牙还牙", "首轮先试探性背叛，再复制对手上一轮动作。") {
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             if (roundIndex == 0) {
                 return Action.DEFECT;
             }
-            return opponentHistory.get(roundIndex - 1);
+            return opponentHistory.last();
+        }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 0.0;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return opponentLast == Action.COOPERATE ? 1.0 : 0.0;
         }
     },
 
@@ -132,8 +202,8 @@ public enum CooperationStrategy {
 
         @Override
         public Action decide(int roundIndex,
-                             List<Action> selfHistory,
-                             List<Action> opponentHistory,
+                             ActionHistory selfHistory,
+                             ActionHistory opponentHistory,
                              Random random) {
             if (roundIndex == 0) {
                 return random.nextDouble() < 0.5 ? Action.COOPERATE : Action.DEFECT;
@@ -141,7 +211,17 @@ public enum CooperationStrategy {
             if (random.nextDouble() < RANDOM_COOPERATION) {
                 return Action.COOPERATE;
             }
-            return opponentHistory.get(roundIndex - 1);
+            return opponentHistory.last();
+        }
+
+        @Override
+        double firstMoveCooperationProbability() {
+            return 0.5;
+        }
+
+        @Override
+        double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected) {
+            return opponentLast == Action.COOPERATE ? 1.0 : RANDOM_COOPERATION;
         }
     };
 
@@ -162,10 +242,31 @@ public enum CooperationStrategy {
     }
 
     /**
-     * 根据过往历史与随机因素选择当前动作。
+     * 根据过往历史与随机因素选择当前动作，各策略只读取最近一轮动作或累计背叛次数，单次调用为常数时间。
      */
     public abstract Action decide(int roundIndex,
-                                  List<Action> selfHistory,
-                                  List<Action> opponentHistory,
+                                  ActionHistory selfHistory,
+                                  ActionHistory opponentHistory,
                                   Random random);
+
+    /**
+     * 首轮（噪声作用前）选择合作的概率。
+     */
+    abstract double firstMoveCooperationProbability();
+
+    /**
+     * 之后各轮（噪声作用前）选择合作的概率。所有内置策略只依赖上一轮双方的实际动作以及对手是否曾背叛，
+     * 即记忆一步的策略再加一个“被背叛”标志，可写成 16 状态的马尔可夫链，见 {@link MarkovMatchEngine}。
+     */
+    abstract double cooperationProbability(Action selfLast, Action opponentLast, boolean opponentEverDefected);
+
+    /**
+     * 以列表形式传入历史的兼容入口，每次调用都会把列表转换为 {@link ActionHistory}。
+     */
+    public Action decide(int roundIndex,
+                         List<Action> selfHistory,
+                         List<Action> opponentHistory,
+                         Random random) {
+        return decide(roundIndex, ActionHistory.of(selfHistory), ActionHistory.of(opponentHistory), random);
+    }
 }
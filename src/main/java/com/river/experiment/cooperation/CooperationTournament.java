@@ -1,28 +1,54 @@
 package com.river.experiment.cooperation;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.river.experiment.core.ChunkAction;
+import com.river.experiment.core.ExecutionMode;
+import com.river.experiment.core.RandomStreams;
 
 /**
  * 执行重复囚徒困境锦标赛，角色随机匹配但参赛次数保持一致。
+ * <p>
+ * 每个配对轮次先洗牌，再把各场对局结果写入按配对序号排列的缓冲区，最后按序号依次计入角色与策略统计；
+ * 对局阶段可单线程共享随机数，也可按 {@link ExecutionMode#DETERMINISTIC_PARALLEL} 分块并行。
  */
 public final class CooperationTournament {
 
+    private static final int PAIRS_PER_CHUNK = 64;
+
     private final MatchSettings settings;
     private final List<CooperationStrategy> strategies;
+    private final long seed;
     private final Random random;
     private final int agentsPerStrategy;
     private final int encounterRounds;
+    private final TournamentOptions options;
+    private final PayoffMatrix matrix;
+    private final MatchKernel kernel;
 
     public CooperationTournament(MatchSettings settings,
                                  List<CooperationStrategy> strategies,
                                  long seed,
                                  int agentsPerStrategy,
                                  int encounterRounds) {
+        this(settings, strategies, seed, agentsPerStrategy, encounterRounds, TournamentOptions.defaults());
+    }
+
+    public CooperationTournament(MatchSettings settings,
+                                 List<CooperationStrategy> strategies,
+                                 long seed,
+                                 int agentsPerStrategy,
+                                 int encounterRounds,
+                                 TournamentOptions options) {
         if (agentsPerStrategy <= 0) {
             throw new IllegalArgumentException("每种策略至少需要 1 名角色。");
         }
@@ -35,33 +61,75 @@ public final class CooperationTournament {
         }
         this.settings = settings;
         this.strategies = List.copyOf(strategies);
+        this.seed = seed;
         this.random = new Random(seed);
         this.agentsPerStrategy = agentsPerStrategy;
         this.encounterRounds = encounterRounds;
+        this.options = Objects.requireNonNull(options, "options");
+        this.matrix = payoffMatrix(settings, seed, options);
+        this.kernel = new MatchKernel(settings, matrix, options.noiseSampling());
     }
 
     public TournamentResult run() {
         List<Participant> participants = createParticipants();
-        List<MatchOutcome> outcomes = new ArrayList<>(encounterRounds * participants.size() / 2);
+        MatchOutcomeStore outcomes = createOutcomeStore(participants);
 
         Map<CooperationStrategy, StrategyAccumulator> strategyAccumulators = new EnumMap<>(CooperationStrategy.class);
         for (CooperationStrategy strategy : strategies) {
             strategyAccumulators.put(strategy, new StrategyAccumulator());
         }
 
-        for (int round = 0; round < encounterRounds; round++) {
-            Collections.shuffle(participants, random);
-            for (int index = 0; index < participants.size(); index += 2) {
-                Participant participantA = participants.get(index);
-                Participant participantB = participants.get(index + 1);
-                MatchOutcome outcome = playMatch(participantA, participantB);
-                outcomes.add(outcome);
-
-                strategyAccumulators.get(participantA.strategy)
-                        .add(outcome.scoreA(), outcome.cooperationRateA(), outcome.mutualCooperationRate());
-                strategyAccumulators.get(participantB.strategy)
-                        .add(outcome.scoreB(), outcome.cooperationRateB(), outcome.mutualCooperationRate());
+        RoundResults results = new RoundResults(participants.size() / 2);
+        ForkJoinPool pool = options.execution() == ExecutionMode.DETERMINISTIC_PARALLEL
+                ? new ForkJoinPool(options.parallelism())
+                : null;
+        try {
+            for (int round = 0; round < encounterRounds; round++) {
+                Collections.shuffle(participants, random);
+                if (pool == null) {
+                    results.playSequential(participants);
+                } else {
+                    results.playParallel(pool, participants, round);
+                }
+                for (int pair = 0; pair < results.pairCount; pair++) {
+                    Participant participantA = participants.get(2 * pair);
+                    Participant participantB = participants.get(2 * pair + 1);
+                    double scoreA = results.scoreA[pair];
+                    double scoreB = results.scoreB[pair];
+                    double cooperationRateA = results.cooperationRateA[pair];
+                    double cooperationRateB = results.cooperationRateB[pair];
+                    double mutualCooperationRate = results.mutualCooperationRate[pair];
+                    participantA.accumulator.add(scoreA, cooperationRateA, mutualCooperationRate);
+                    participantB.accumulator.add(scoreB, cooperationRateB, mutualCooperationRate);
+                    strategyAccumulators.get(participantA.strategy)
+                            .add(scoreA, cooperationRateA, mutualCooperationRate);
+                    strategyAccumulators.get(participantB.strategy)
+                            .add(scoreB, cooperationRateB, mutualCooperationRate);
+                    if (options.recordMatchOutcomes()) {
+                        outcomes.append(
+                                participantA.index,
+                                participantB.index,
+                                participantA.strategy,
+                                participantB.strategy,
+                                scoreA,
+                                scoreB,
+                                cooperationRateA,
+                                cooperationRateB,
+                                mutualCooperationRate
+                        );
+                    }
+                }
             }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        try {
+            // 结果已全部写入，映射文件的通道可以关闭，已映射的页仍可读取
+            outcomes.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("关闭对局结果文件失败。", e);
         }
 
         List<AgentPerformance> agentPerformances = new ArrayList<>(participants.size());
@@ -89,99 +157,114 @@ public final class CooperationTournament {
         return new TournamentResult(agentPerformances, strategyPerformances, outcomes);
     }
 
+    private static PayoffMatrix payoffMatrix(MatchSettings settings, long seed, TournamentOptions options) {
+        return switch (options.matchEngine()) {
+            case MONTE_CARLO -> null;
+            case MARKOV_EXACT -> PayoffMatrix.exact(settings);
+            case SAMPLED_MATRIX -> PayoffMatrix.sampled(settings, options.matrixSamplesPerPair(), seed);
+        };
+    }
+
     private List<Participant> createParticipants() {
         List<Participant> participants = new ArrayList<>(strategies.size() * agentsPerStrategy);
         for (CooperationStrategy strategy : strategies) {
             for (int i = 0; i < agentsPerStrategy; i++) {
                 String id = strategy.displayName() + "#" + (i + 1);
-                participants.add(new Participant(id, strategy));
+                participants.add(new Participant(participants.size(), id, strategy));
             }
         }
         return participants;
     }
 
-    private MatchOutcome playMatch(Participant participantA, Participant participantB) {
-        List<Action> historyA = new ArrayList<>(settings.rounds());
-        List<Action> historyB = new ArrayList<>(settings.rounds());
-
-        double scoreA = 0.0;
-        double scoreB = 0.0;
-        int cooperationCountA = 0;
-        int cooperationCountB = 0;
-        int mutualCooperationCount = 0;
-
-        for (int round = 0; round < settings.rounds(); round++) {
-            Action actionA = participantA.strategy.decide(round, historyA, historyB, random);
-            Action actionB = participantB.strategy.decide(round, historyB, historyA, random);
-
-            actionA = maybeFlip(actionA);
-            actionB = maybeFlip(actionB);
-
-            historyA.add(actionA);
-            historyB.add(actionB);
-
-            double[] payoffs = payoff(actionA, actionB);
-            scoreA += payoffs[0];
-            scoreB += payoffs[1];
+    /**
+     * 一个配对轮次的对局结果，按配对序号存放在原始类型数组中，各轮复用。
+     */
+    private final class RoundResults {
+
+        private final int pairCount;
+        private final double[] scoreA;
+        private final double[] scoreB;
+        private final double[] cooperationRateA;
+        private final double[] cooperationRateB;
+        private final double[] mutualCooperationRate;
+        private final int chunkCount;
+        private MatchKernel[] chunkKernels;
+        private Random[] chunkRandoms;
+
+        RoundResults(int pairCount) {
+            this.pairCount = pairCount;
+            this.scoreA = new double[pairCount];
+            this.scoreB = new double[pairCount];
+            this.cooperationRateA = new double[pairCount];
+            this.cooperationRateB = new double[pairCount];
+            this.mutualCooperationRate = new double[pairCount];
+            this.chunkCount = (pairCount + PAIRS_PER_CHUNK - 1) / PAIRS_PER_CHUNK;
+        }
 
-            if (actionA == Action.COOPERATE) {
-                cooperationCountA++;
-            }
-            if (actionB == Action.COOPERATE) {
-                cooperationCountB++;
+        void playSequential(List<Participant> participants) {
+            for (int pair = 0; pair < pairCount; pair++) {
+                kernel.play(participants.get(2 * pair).strategy, participants.get(2 * pair + 1).strategy, random);
+                store(pair, kernel);
             }
-            if (actionA == Action.COOPERATE && actionB == Action.COOPERATE) {
-                mutualCooperationCount++;
+        }
+
+        void playParallel(ForkJoinPool pool, List<Participant> participants, int round) {
+            if (chunkKernels == null) {
+                chunkKernels = new MatchKernel[chunkCount];
+                chunkRandoms = new Random[chunkCount];
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    chunkKernels[chunk] = new MatchKernel(settings, matrix, options.noiseSampling());
+                    chunkRandoms[chunk] = new Random();
+                }
             }
+            ChunkAction.forEach(pool, chunkCount, chunk -> {
+                MatchKernel chunkKernel = chunkKernels[chunk];
+                Random chunkRandom = chunkRandoms[chunk];
+                int end = Math.min(pairCount, (chunk + 1) * PAIRS_PER_CHUNK);
+                for (int pair = chunk * PAIRS_PER_CHUNK; pair < end; pair++) {
+                    chunkRandom.setSeed(RandomStreams.seed(seed, round, pair));
+                    chunkKernel.play(
+                            participants.get(2 * pair).strategy,
+                            participants.get(2 * pair + 1).strategy,
+                            chunkRandom
+                    );
+                    store(pair, chunkKernel);
+                }
+            });
         }
 
-        double rounds = settings.rounds();
-        double cooperationRateA = cooperationCountA / rounds;
-        double cooperationRateB = cooperationCountB / rounds;
-        double mutualCooperationRate = mutualCooperationCount / rounds;
-
-        participantA.accumulator.add(scoreA, cooperationRateA, mutualCooperationRate);
-        participantB.accumulator.add(scoreB, cooperationRateB, mutualCooperationRate);
-
-        return new MatchOutcome(
-                participantA.id,
-                participantB.id,
-                participantA.strategy,
-                participantB.strategy,
-                scoreA,
-                scoreB,
-                cooperationRateA,
-                cooperationRateB,
-                mutualCooperationRate
-        );
+        private void store(int pair, MatchKernel source) {
+            scoreA[pair] = source.scoreA();
+            scoreB[pair] = source.scoreB();
+            cooperationRateA[pair] = source.cooperationRateA();
+            cooperationRateB[pair] = source.cooperationRateB();
+            mutualCooperationRate[pair] = source.mutualCooperationRate();
+        }
     }
 
-    private double[] payoff(Action actionA, Action actionB) {
-        if (actionA == Action.COOPERATE && actionB == Action.COOPERATE) {
-            return new double[]{settings.reward(), settings.reward()};
-        }
-        if (actionA == Action.COOPERATE && actionB == Action.DEFECT) {
-            return new double[]{settings.sucker(), settings.temptation()};
+    private MatchOutcomeStore createOutcomeStore(List<Participant> participants) {
+        List<String> agentIds = new ArrayList<>(participants.size());
+        for (Participant participant : participants) {
+            agentIds.add(participant.id);
         }
-        if (actionA == Action.DEFECT && actionB == Action.COOPERATE) {
-            return new double[]{settings.temptation(), settings.sucker()};
+        if (!options.recordMatchOutcomes() || options.outcomeSpillFile() == null) {
+            return MatchOutcomeStore.inMemory(agentIds);
         }
-        return new double[]{settings.punishment(), settings.punishment()};
-    }
-
-    private Action maybeFlip(Action action) {
-        if (random.nextDouble() < settings.noiseProbability()) {
-            return action.opposite();
+        try {
+            return MatchOutcomeStore.memoryMapped(agentIds, options.outcomeSpillFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建对局结果文件失败。", e);
         }
-        return action;
     }
 
     private static final class Participant {
+        private final int index;
         private final String id;
         private final CooperationStrategy strategy;
         private final AgentAccumulator accumulator = new AgentAccumulator();
 
-        Participant(String id, CooperationStrategy strategy) {
+        Participant(int index, String id, CooperationStrategy strategy) {
+            this.index = index;
             this.id = id;
             this.strategy = strategy;
         }
@@ -0,0 +1,35 @@
+package com.river.experiment.cooperation;
+
+import java.util.Objects;
+
+/**
+ * 策略演化的参数设定。
+ *
+ * @param populationSize      族群人数
+ * @param generations         演化代数，每代包含 {@code populationSize} 次单个体更新
+ * @param dynamics            更新规则
+ * @param selectionIntensity  选择强度 w，作用于每轮平均得分 π
+ * @param mutationRate        每次更新时新策略改为随机策略的概率
+ */
+public record EvolutionParameters(int populationSize,
+                                  int generations,
+                                  EvolutionaryDynamics dynamics,
+                                  double selectionIntensity,
+                                  double mutationRate) {
+
+    public EvolutionParameters {
+        Objects.requireNonNull(dynamics, "dynamics");
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("族群人数至少为 2。");
+        }
+        if (generations <= 0) {
+            throw new IllegalArgumentException("演化代数必须大于 0。");
+        }
+        if (selectionIntensity < 0) {
+            throw new IllegalArgumentException("选择强度不能为负数。");
+        }
+        if (mutationRate < 0 || mutationRate > 1) {
+            throw new IllegalArgumentException("突变率需介于 0 与 1 之间。");
+        }
+    }
+}
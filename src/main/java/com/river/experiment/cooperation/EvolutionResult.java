@@ -0,0 +1,87 @@
+package com.river.experiment.cooperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.river.experiment.core.chart.ChartSeries;
+
+/**
+ * 策略演化的结果：每代结束时各策略在族群中的占比。
+ */
+public final class EvolutionResult {
+
+    private final EvolutionParameters parameters;
+    private final List<CooperationStrategy> strategies;
+    private final double[][] shares;
+    private final int recordedGenerations;
+
+    EvolutionResult(EvolutionParameters parameters,
+                    List<CooperationStrategy> strategies,
+                    double[][] shares,
+                    int recordedGenerations) {
+        this.parameters = parameters;
+        this.strategies = List.copyOf(strategies);
+        this.shares = shares;
+        this.recordedGenerations = recordedGenerations;
+    }
+
+    public EvolutionParameters parameters() {
+        return parameters;
+    }
+
+    public List<CooperationStrategy> strategies() {
+        return strategies;
+    }
+
+    /**
+     * 记录的代数，第 0 个样本为初始状态。
+     */
+    public int sampleCount() {
+        return recordedGenerations;
+    }
+
+    public double share(CooperationStrategy strategy, int generation) {
+        return shares[indexOf(strategy)][generation];
+    }
+
+    public double finalShare(CooperationStrategy strategy) {
+        return share(strategy, recordedGenerations - 1);
+    }
+
+    public CooperationStrategy dominantStrategy() {
+        CooperationStrategy dominant = strategies.get(0);
+        for (CooperationStrategy strategy : strategies) {
+            if (finalShare(strategy) > finalShare(dominant)) {
+                dominant = strategy;
+            }
+        }
+        return dominant;
+    }
+
+    /**
+     * 每种策略一条“占比（%）随代数变化”的序列，可直接放入图表。
+     */
+    public List<ChartSeries> shareSeries() {
+        double[] generations = new double[recordedGenerations];
+        for (int generation = 0; generation < recordedGenerations; generation++) {
+            generations[generation] = generation;
+        }
+        List<ChartSeries> series = new ArrayList<>(strategies.size());
+        for (int index = 0; index < strategies.size(); index++) {
+            double[] percent = new double[recordedGenerations];
+            for (int generation = 0; generation < recordedGenerations; generation++) {
+                percent[generation] = shares[index][generation] * 100;
+            }
+            series.add(new ChartSeries(strategies.get(index).name(), generations, percent));
+        }
+        return series;
+    }
+
+    private int indexOf(CooperationStrategy strategy) {
+        int index = strategies.indexOf(strategy);
+        if (index < 0) {
+            throw new IllegalArgumentException("该策略未参与演化：" + strategy);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,17 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 策略在有限族群中传播的更新规则。
+ */
+public enum EvolutionaryDynamics {
+
+    /**
+     * 莫兰过程：按适合度 {@code 1 + w·π} 选出一名个体繁殖，其后代替换随机一名个体。
+     */
+    MORAN,
+
+    /**
+     * 成对比较（费米规则）：随机个体观察另一名随机个体，以 {@code 1 / (1 + exp(-w·(π对方 - π自身)))} 的概率模仿对方策略。
+     */
+    FERMI
+}
@@ -0,0 +1,131 @@
+package com.river.experiment.cooperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 由策略对的期望得分精确计算有限族群中的固定概率，取代大量随机模拟。
+ * <p>
+ * 族群中有 j 名突变者 A、N - j 名常驻者 B 时，双方与其余个体各对局一场的每轮平均得分为
+ * {@code π_A(j) = (a_AA·(j-1) + a_AB·(N-j)) / (N-1)}、{@code π_B(j) = (a_BA·j + a_BB·(N-j-1)) / (N-1)}，
+ * 与 {@link StrategyEvolution} 一致。突变者人数减一与加一的转移概率之比 γ_j 在莫兰过程下为
+ * {@code (1 + w·π_B) / (1 + w·π_A)}，在费米规则下为 {@code exp(-w·(π_A - π_B))}，固定概率为
+ * {@code ρ = 1 / (1 + Σ_{k=1}^{N-1} Π_{j=1}^{k} γ_j)}。
+ * 连乘在对数空间累加，求和用流式 log-sum-exp，N 达到百万也不会上溢或下溢；每个（策略对, 规模）的开销与 N 成正比，
+ * 彼此独立，可并行计算。
+ */
+public final class FixationCalculator {
+
+    private final PayoffMatrix matrix;
+    private final EvolutionaryDynamics dynamics;
+    private final double selectionIntensity;
+
+    public FixationCalculator(PayoffMatrix matrix, EvolutionaryDynamics dynamics, double selectionIntensity) {
+        this.matrix = Objects.requireNonNull(matrix, "matrix");
+        this.dynamics = Objects.requireNonNull(dynamics, "dynamics");
+        if (selectionIntensity < 0) {
+            throw new IllegalArgumentException("选择强度不能为负数。");
+        }
+        this.selectionIntensity = selectionIntensity;
+    }
+
+    /**
+     * 单个 {@code mutant} 在 {@code populationSize - 1} 名 {@code resident} 中最终固定的概率的自然对数。
+     */
+    public double logFixationProbability(CooperationStrategy mutant, CooperationStrategy resident, int populationSize) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("族群人数至少为 2。");
+        }
+        double rounds = matrix.settings().rounds();
+        double aa = matrix.meanScore(mutant, mutant) / rounds;
+        double ab = matrix.meanScore(mutant, resident) / rounds;
+        double ba = matrix.meanScore(resident, mutant) / rounds;
+        double bb = matrix.meanScore(resident, resident) / rounds;
+        double opponents = populationSize - 1;
+        boolean moran = dynamics == EvolutionaryDynamics.MORAN;
+
+        // 流式 log-sum-exp：首项 log 1 = 0，之后依次加入 log Π_{j≤k} γ_j
+        double logProduct = 0.0;
+        double max = 0.0;
+        double scaledSum = 1.0;
+        for (int j = 1; j < populationSize; j++) {
+            double mutantPayoff = (aa * (j - 1) + ab * (populationSize - j)) / opponents;
+            double residentPayoff = (ba * j + bb * (populationSize - j - 1)) / opponents;
+            if (moran) {
+                double mutantFitness = 1 + selectionIntensity * mutantPayoff;
+                double residentFitness = 1 + selectionIntensity * residentPayoff;
+                if (mutantFitness <= 0 || residentFitness <= 0) {
+                    throw new IllegalArgumentException("选择强度过大，莫兰过程的适合度 1 + w·π 会出现非正值。");
+                }
+                logProduct += Math.log(residentFitness / mutantFitness);
+            } else {
+                logProduct -= selectionIntensity * (mutantPayoff - residentPayoff);
+            }
+            if (logProduct > max) {
+                scaledSum = scaledSum * Math.exp(max - logProduct) + 1.0;
+                max = logProduct;
+            } else {
+                scaledSum += Math.exp(logProduct - max);
+            }
+        }
+        return -(max + Math.log(scaledSum));
+    }
+
+    public double fixationProbability(CooperationStrategy mutant, CooperationStrategy resident, int populationSize) {
+        return Math.exp(logFixationProbability(mutant, resident, populationSize));
+    }
+
+    /**
+     * 对所有有序策略对与给定族群规模计算固定概率，各项在 {@code parallelism} 个线程上独立计算，结果与线程数无关。
+     */
+    public FixationMatrix compute(List<CooperationStrategy> strategies, int[] populationSizes, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+        List<CooperationStrategy> participants = List.copyOf(strategies);
+        int strategyCount = participants.size();
+        int sizeCount = populationSizes.length;
+        double[] logProbabilities = new double[strategyCount * strategyCount * sizeCount];
+        FixationMatrix result = new FixationMatrix(participants, populationSizes, logProbabilities);
+
+        List<Callable<Void>> tasks = new ArrayList<>(logProbabilities.length);
+        for (int mutant = 0; mutant < strategyCount; mutant++) {
+            for (int resident = 0; resident < strategyCount; resident++) {
+                for (int size = 0; size < sizeCount; size++) {
+                    int index = result.index(mutant, resident, size);
+                    CooperationStrategy mutantStrategy = participants.get(mutant);
+                    CooperationStrategy residentStrategy = participants.get(resident);
+                    int populationSize = populationSizes[size];
+                    tasks.add(() -> {
+                        logProbabilities[index] = logFixationProbability(mutantStrategy, residentStrategy, populationSize);
+                        return null;
+                    });
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (Future<Void> task : executor.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("固定概率计算被中断。", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                throw invalid;
+            }
+            throw new IllegalStateException("固定概率计算失败。", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+}
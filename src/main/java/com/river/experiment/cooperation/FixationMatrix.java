@@ -0,0 +1,64 @@
+package com.river.experiment.cooperation;
+
+import java.util.List;
+
+/**
+ * 各有序策略对在不同族群规模下的固定概率：单个突变者（mutant）进入由另一策略（resident）占满的族群后最终占满族群的概率。
+ * 概率以自然对数保存，族群很大时也不会下溢。
+ */
+public final class FixationMatrix {
+
+    private final List<CooperationStrategy> strategies;
+    private final int[] populationSizes;
+    private final double[] logProbabilities;
+
+    FixationMatrix(List<CooperationStrategy> strategies, int[] populationSizes, double[] logProbabilities) {
+        this.strategies = List.copyOf(strategies);
+        this.populationSizes = populationSizes.clone();
+        this.logProbabilities = logProbabilities;
+    }
+
+    public List<CooperationStrategy> strategies() {
+        return strategies;
+    }
+
+    public int[] populationSizes() {
+        return populationSizes.clone();
+    }
+
+    public double logProbability(CooperationStrategy mutant, CooperationStrategy resident, int populationSize) {
+        return logProbabilities[index(strategyIndex(mutant), strategyIndex(resident), sizeIndex(populationSize))];
+    }
+
+    public double probability(CooperationStrategy mutant, CooperationStrategy resident, int populationSize) {
+        return Math.exp(logProbability(mutant, resident, populationSize));
+    }
+
+    /**
+     * 固定概率是否高于中性漂变的 {@code 1 / N}，即选择是否有利于突变者入侵。
+     */
+    public boolean favoursMutant(CooperationStrategy mutant, CooperationStrategy resident, int populationSize) {
+        return logProbability(mutant, resident, populationSize) > -Math.log(populationSize);
+    }
+
+    int index(int mutant, int resident, int size) {
+        return (mutant * strategies.size() + resident) * populationSizes.length + size;
+    }
+
+    private int strategyIndex(CooperationStrategy strategy) {
+        int index = strategies.indexOf(strategy);
+        if (index < 0) {
+            throw new IllegalArgumentException("该策略不在固定概率矩阵中：" + strategy);
+        }
+        return index;
+    }
+
+    private int sizeIndex(int populationSize) {
+        for (int i = 0; i < populationSizes.length; i++) {
+            if (populationSizes[i] == populationSize) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("该族群规模不在固定概率矩阵中：" + populationSize);
+    }
+}
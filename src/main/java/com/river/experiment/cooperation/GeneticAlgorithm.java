@@ -0,0 +1,215 @@
+package com.river.experiment.cooperation;
+
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import com.river.experiment.core.ChunkAction;
+import com.river.experiment.core.RandomStreams;
+
+/**
+ * 以 {@link LookupTableStrategy} 为基因组的遗传算法。
+ * <p>
+ * 整个种群的基因组连续存放在一个 {@code long[]} 中，每代两步：
+ * <ol>
+ *     <li>评估：每个基因组随机挑选若干对手，用无分配的 {@link MatchKernel} 逐轮对局（噪声按几何间隔抽样），
+ *         适合度为自身的每轮平均得分；</li>
+ *     <li>繁殖：锦标赛选择两个亲本，按概率均匀交叉（按字取随机掩码），再以几何分布跳过未突变的位逐位翻转。</li>
+ * </ol>
+ * 两步都按每块 256 个基因组在 ForkJoinPool 上并行，每块复用自己的对局内核。评估时每个基因组的随机流由
+ * （种子、代数、基因组序号）派生，繁殖时每块的随机流由（种子、代数、块序号）派生，结果与线程数无关。
+ */
+public final class GeneticAlgorithm {
+
+    private static final int GENOMES_PER_CHUNK = 256;
+    private static final int INITIALIZATION_ROUND = -1;
+
+    private final GeneticAlgorithmParameters parameters;
+    private final long seed;
+    private final int parallelism;
+    private final int populationSize;
+    private final int memory;
+    private final int genomeBits;
+    private final int genomeWords;
+    private final long lastWordMask;
+    private final int chunkCount;
+    private final double roundsPerMatch;
+    private final double[] fitness;
+    private final double[] cooperationRate;
+    private final MatchKernel[] chunkKernels;
+    private final Random[] chunkRandoms;
+    private long[] population;
+    private long[] offspring;
+
+    public GeneticAlgorithm(MatchSettings settings, GeneticAlgorithmParameters parameters, long seed) {
+        this(settings, parameters, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism 线程数，不影响结果
+     */
+    public GeneticAlgorithm(MatchSettings settings,
+                            GeneticAlgorithmParameters parameters,
+                            long seed,
+                            int parallelism) {
+        Objects.requireNonNull(settings, "settings");
+        this.parameters = Objects.requireNonNull(parameters, "parameters");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.populationSize = parameters.populationSize();
+        this.memory = parameters.memory();
+        this.genomeBits = LookupTableStrategy.genomeBits(memory);
+        this.genomeWords = LookupTableStrategy.genomeWords(memory);
+        this.lastWordMask = LookupTableStrategy.lastWordMask(memory);
+        this.chunkCount = (populationSize + GENOMES_PER_CHUNK - 1) / GENOMES_PER_CHUNK;
+        this.roundsPerMatch = settings.rounds();
+        this.fitness = new double[populationSize];
+        this.cooperationRate = new double[populationSize];
+        this.chunkKernels = new MatchKernel[chunkCount];
+        this.chunkRandoms = new Random[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunkKernels[chunk] = new MatchKernel(settings, null, NoiseSampling.GEOMETRIC_SKIP);
+            chunkRandoms[chunk] = new Random();
+        }
+        this.population = new long[populationSize * genomeWords];
+        this.offspring = new long[populationSize * genomeWords];
+    }
+
+    public GeneticAlgorithmResult run() {
+        long started = System.nanoTime();
+        int generations = parameters.generations();
+        double[] meanFitness = new double[generations];
+        double[] bestFitness = new double[generations];
+        double[] meanCooperation = new double[generations];
+        int best = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ChunkAction.forEach(pool, chunkCount, this::randomizeChunk);
+            for (int generation = 0; generation < generations; generation++) {
+                int current = generation;
+                ChunkAction.forEach(pool, chunkCount, chunk -> evaluateChunk(chunk, current));
+
+                // 按基因组序号依次汇总，保证浮点结果与线程数无关
+                double fitnessSum = 0.0;
+                double cooperationSum = 0.0;
+                best = 0;
+                for (int genome = 0; genome < populationSize; genome++) {
+                    fitnessSum += fitness[genome];
+                    cooperationSum += cooperationRate[genome];
+                    if (fitness[genome] > fitness[best]) {
+                        best = genome;
+                    }
+                }
+                meanFitness[generation] = fitnessSum / populationSize;
+                bestFitness[generation] = fitness[best];
+                meanCooperation[generation] = cooperationSum / populationSize;
+
+                if (generation < generations - 1) {
+                    ChunkAction.forEach(pool, chunkCount, chunk -> reproduceChunk(chunk, current));
+                    long[] previous = population;
+                    population = offspring;
+                    offspring = previous;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new GeneticAlgorithmResult(
+                parameters,
+                meanFitness,
+                bestFitness,
+                meanCooperation,
+                LookupTableStrategy.copyOf(memory, population, best * genomeWords),
+                System.nanoTime() - started
+        );
+    }
+
+    private int chunkEnd(int chunk) {
+        return Math.min(populationSize, (chunk + 1) * GENOMES_PER_CHUNK);
+    }
+
+    private void randomizeChunk(int chunk) {
+        SplittableRandom random = RandomStreams.stream(seed, INITIALIZATION_ROUND, chunk);
+        for (int genome = chunk * GENOMES_PER_CHUNK; genome < chunkEnd(chunk); genome++) {
+            int offset = genome * genomeWords;
+            for (int word = 0; word < genomeWords; word++) {
+                population[offset + word] = random.nextLong();
+            }
+            population[offset + genomeWords - 1] &= lastWordMask;
+        }
+    }
+
+    private void evaluateChunk(int chunk, int generation) {
+        MatchKernel kernel = chunkKernels[chunk];
+        Random random = chunkRandoms[chunk];
+        int opponents = parameters.opponentsPerGenome();
+        for (int genome = chunk * GENOMES_PER_CHUNK; genome < chunkEnd(chunk); genome++) {
+            random.setSeed(RandomStreams.seed(seed, 2L * generation, genome));
+            double score = 0.0;
+            double cooperation = 0.0;
+            for (int match = 0; match < opponents; match++) {
+                // 对手从除自身外的 N - 1 个基因组中均匀选取
+                int opponent = random.nextInt(populationSize - 1);
+                if (opponent >= genome) {
+                    opponent++;
+                }
+                kernel.play(population, genome * genomeWords, population, opponent * genomeWords, memory, random);
+                score += kernel.scoreA();
+                cooperation += kernel.cooperationRateA();
+            }
+            fitness[genome] = score / (opponents * roundsPerMatch);
+            cooperationRate[genome] = cooperation / opponents;
+        }
+    }
+
+    private void reproduceChunk(int chunk, int generation) {
+        SplittableRandom random = RandomStreams.stream(seed, 2L * generation + 1, chunk);
+        double crossoverRate = parameters.crossoverRate();
+        double mutationRate = parameters.mutationRate();
+        double logKeep = Math.log1p(-mutationRate);
+        for (int child = chunk * GENOMES_PER_CHUNK; child < chunkEnd(chunk); child++) {
+            int out = child * genomeWords;
+            int first = select(random) * genomeWords;
+            if (random.nextDouble() < crossoverRate) {
+                int second = select(random) * genomeWords;
+                for (int word = 0; word < genomeWords; word++) {
+                    long mask = random.nextLong();
+                    offspring[out + word] = (population[first + word] & mask) | (population[second + word] & ~mask);
+                }
+            } else {
+                System.arraycopy(population, first, offspring, out, genomeWords);
+            }
+            if (mutationRate > 0.0) {
+                // 相邻两次翻转之间跳过的位数服从几何分布，每个子代只需约 μ·L 次随机数
+                long bit = skip(random, logKeep);
+                while (bit < genomeBits) {
+                    offspring[out + (int) (bit >>> 6)] ^= 1L << bit;
+                    bit += 1 + skip(random, logKeep);
+                }
+            }
+        }
+    }
+
+    private static long skip(SplittableRandom random, double logKeep) {
+        double gap = Math.floor(Math.log(1.0 - random.nextDouble()) / logKeep);
+        return gap < Integer.MAX_VALUE ? (long) gap : Integer.MAX_VALUE;
+    }
+
+    /**
+     * 锦标赛选择：均匀抽取若干基因组，取适合度最高者（并列时取先抽到的）。
+     */
+    private int select(SplittableRandom random) {
+        int best = random.nextInt(populationSize);
+        for (int round = 1; round < parameters.tournamentSize(); round++) {
+            int candidate = random.nextInt(populationSize);
+            if (fitness[candidate] > fitness[best]) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,41 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 查表策略遗传算法入口：10 万个记忆 3 步的基因组在带噪声的重复囚徒困境中进化，
+ * 打印逐代适合度与合作率，以及最终适合度最高的动作表。
+ */
+public final class GeneticAlgorithmApp {
+
+    public static void main(String[] args) {
+        MatchSettings settings = new MatchSettings(200, 0.015, 3.0, 5.0, 1.0, 0.0);
+        GeneticAlgorithmParameters parameters = new GeneticAlgorithmParameters(
+                100_000,  // 种群规模
+                50,       // 进化代数
+                3,        // 记忆轮数，动作表 64 位
+                8,        // 每代每个基因组的对手数
+                3,        // 锦标赛选择规模
+                0.7,      // 交叉概率
+                0.002     // 每位突变率
+        );
+        GeneticAlgorithm algorithm = new GeneticAlgorithm(settings, parameters, 2025L);
+        GeneticAlgorithmResult result = algorithm.run();
+
+        System.out.println("查表策略遗传算法");
+        System.out.printf("  种群=%d, 代数=%d, 记忆=%d, 耗时=%.1f 秒%n",
+                parameters.populationSize(), parameters.generations(), parameters.memory(),
+                result.elapsedNanos() / 1e9);
+        for (int generation = 0; generation < parameters.generations(); generation += 5) {
+            System.out.printf("  第 %d 代：平均适合度 %.3f，最高 %.3f，合作率 %.1f%%%n",
+                    generation,
+                    result.meanFitness(generation),
+                    result.bestFitness(generation),
+                    100 * result.meanCooperationRate(generation));
+        }
+        LookupTableStrategy best = result.bestStrategy();
+        System.out.printf("最优动作表（状态 0 起，C 合作 / D 背叛，表中合作占比 %.1f%%）：%n", 100 * best.cooperationShare());
+        System.out.println("  " + best.tableString());
+    }
+
+    private GeneticAlgorithmApp() {
+    }
+}
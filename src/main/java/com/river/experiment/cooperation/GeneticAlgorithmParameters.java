@@ -0,0 +1,45 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 查表策略遗传算法的参数设定。
+ *
+ * @param populationSize      种群中的基因组数量
+ * @param generations         进化代数
+ * @param memory              策略记忆的轮数 n，动作表共 {@code 4^n} 位
+ * @param opponentsPerGenome  每代每个基因组随机挑选的对手数，适合度为这些对局的每轮平均得分
+ * @param tournamentSize      锦标赛选择每次比较的基因组数
+ * @param crossoverRate       子代由两个亲本均匀交叉产生的概率，否则直接复制第一个亲本
+ * @param mutationRate        子代基因组每一位翻转的概率
+ */
+public record GeneticAlgorithmParameters(int populationSize,
+                                         int generations,
+                                         int memory,
+                                         int opponentsPerGenome,
+                                         int tournamentSize,
+                                         double crossoverRate,
+                                         double mutationRate) {
+
+    public GeneticAlgorithmParameters {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("种群规模至少为 2。");
+        }
+        if (generations <= 0) {
+            throw new IllegalArgumentException("进化代数必须大于 0。");
+        }
+        if (memory < 1 || memory > LookupTableStrategy.MAX_MEMORY) {
+            throw new IllegalArgumentException("记忆步数需介于 1 与 " + LookupTableStrategy.MAX_MEMORY + " 之间。");
+        }
+        if (opponentsPerGenome <= 0) {
+            throw new IllegalArgumentException("每个基因组的对手数必须大于 0。");
+        }
+        if (tournamentSize <= 0) {
+            throw new IllegalArgumentException("锦标赛规模必须大于 0。");
+        }
+        if (crossoverRate < 0 || crossoverRate > 1) {
+            throw new IllegalArgumentException("交叉概率需介于 0 与 1 之间。");
+        }
+        if (mutationRate < 0 || mutationRate >= 1) {
+            throw new IllegalArgumentException("突变率需不小于 0 且小于 1。");
+        }
+    }
+}
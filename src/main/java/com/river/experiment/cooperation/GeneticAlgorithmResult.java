@@ -0,0 +1,73 @@
+package com.river.experiment.cooperation;
+
+import java.util.List;
+
+import com.river.experiment.core.chart.ChartSeries;
+
+/**
+ * 遗传算法的运行结果：逐代的平均 / 最高适合度、平均合作率，以及最后一代适合度最高的策略。
+ */
+public final class GeneticAlgorithmResult {
+
+    private final GeneticAlgorithmParameters parameters;
+    private final double[] meanFitness;
+    private final double[] bestFitness;
+    private final double[] meanCooperationRate;
+    private final LookupTableStrategy bestStrategy;
+    private final long elapsedNanos;
+
+    GeneticAlgorithmResult(GeneticAlgorithmParameters parameters,
+                           double[] meanFitness,
+                           double[] bestFitness,
+                           double[] meanCooperationRate,
+                           LookupTableStrategy bestStrategy,
+                           long elapsedNanos) {
+        this.parameters = parameters;
+        this.meanFitness = meanFitness;
+        this.bestFitness = bestFitness;
+        this.meanCooperationRate = meanCooperationRate;
+        this.bestStrategy = bestStrategy;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public GeneticAlgorithmParameters parameters() {
+        return parameters;
+    }
+
+    /**
+     * 第 {@code generation} 代的平均适合度（每轮平均得分）。
+     */
+    public double meanFitness(int generation) {
+        return meanFitness[generation];
+    }
+
+    public double bestFitness(int generation) {
+        return bestFitness[generation];
+    }
+
+    public double meanCooperationRate(int generation) {
+        return meanCooperationRate[generation];
+    }
+
+    public LookupTableStrategy bestStrategy() {
+        return bestStrategy;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 平均与最高适合度随代数变化的两条序列，可直接放入图表。
+     */
+    public List<ChartSeries> fitnessSeries() {
+        double[] generations = new double[meanFitness.length];
+        for (int generation = 0; generation < generations.length; generation++) {
+            generations[generation] = generation;
+        }
+        return List.of(
+                new ChartSeries("平均适合度", generations, meanFitness.clone()),
+                new ChartSeries("最高适合度", generations, bestFitness.clone())
+        );
+    }
+}
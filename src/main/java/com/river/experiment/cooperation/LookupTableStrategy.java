@@ -0,0 +1,184 @@
+package com.river.experiment.cooperation;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 以查表表示的记忆 n 步策略，可作为遗传算法的基因组。
+ * <p>
+ * 双方最近 n 轮的联合动作编码为状态：每轮占 2 位（高位是自己、低位是对手，1 表示背叛），最近一轮在最低位，
+ * 共 {@code 4^n} 个状态。基因组的前 {@code 4^n} 位是动作表（1 表示背叛），其后 {@code 2n} 位是
+ * 对局开始前假想的“前史”，作为首轮的初始状态。决策只需一次按位取值，不再检查动作列表。
+ * <p>
+ * 基因组按位存放在 {@code long[]} 中；遗传算法把整个种群的基因组连续存放在一个数组里，
+ * 通过偏移量读取，因此本类的静态方法都以 {@code (words, offset)} 为参数。
+ */
+public final class LookupTableStrategy {
+
+    static final int MAX_MEMORY = 6;
+
+    private final int memory;
+    private final long[] words;
+
+    private LookupTableStrategy(int memory, long[] words) {
+        this.memory = memory;
+        this.words = words;
+    }
+
+    /**
+     * @param genome 至少 {@link #genomeBits(int)} 位，超出部分忽略
+     */
+    public static LookupTableStrategy of(int memory, long[] genome) {
+        Objects.requireNonNull(genome, "genome");
+        int length = genomeWords(memory);
+        if (genome.length < length) {
+            throw new IllegalArgumentException("基因组长度不足，记忆 " + memory + " 步需要 " + genomeBits(memory) + " 位。");
+        }
+        long[] words = Arrays.copyOf(genome, length);
+        words[length - 1] &= lastWordMask(memory);
+        return new LookupTableStrategy(memory, words);
+    }
+
+    static LookupTableStrategy copyOf(int memory, long[] genomes, int offset) {
+        return new LookupTableStrategy(memory, Arrays.copyOfRange(genomes, offset, offset + genomeWords(memory)));
+    }
+
+    /**
+     * 以牙还牙：对手上一轮背叛则背叛，前史为双方合作。
+     */
+    public static LookupTableStrategy titForTat(int memory) {
+        long[] genome = new long[genomeWords(memory)];
+        for (int state = 0; state < stateCount(memory); state++) {
+            if ((state & 1) != 0) {
+                genome[state >>> 6] |= 1L << state;
+            }
+        }
+        return new LookupTableStrategy(memory, genome);
+    }
+
+    public static int stateCount(int memory) {
+        checkMemory(memory);
+        return 1 << (2 * memory);
+    }
+
+    public static int genomeBits(int memory) {
+        return stateCount(memory) + 2 * memory;
+    }
+
+    public static int genomeWords(int memory) {
+        return (genomeBits(memory) + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    public int memory() {
+        return memory;
+    }
+
+    public long[] genome() {
+        return words.clone();
+    }
+
+    public int initialState() {
+        return initialState(words, 0, memory);
+    }
+
+    /**
+     * 在当前状态下是否背叛。
+     */
+    public boolean defects(int state) {
+        Objects.checkIndex(state, stateCount(memory));
+        return defects(words, 0, state);
+    }
+
+    public Action decide(int state) {
+        return defects(state) ? Action.DEFECT : Action.COOPERATE;
+    }
+
+    /**
+     * 记录一轮联合动作后的新状态。
+     */
+    public int nextState(int state, Action self, Action opponent) {
+        return advance(state, PayoffTable.index(self, opponent), stateCount(memory) - 1);
+    }
+
+    /**
+     * 动作表中选择合作的状态占比。
+     */
+    public double cooperationShare() {
+        int states = stateCount(memory);
+        int defections = 0;
+        for (int state = 0; state < states; state++) {
+            if (defects(words, 0, state)) {
+                defections++;
+            }
+        }
+        return 1.0 - defections / (double) states;
+    }
+
+    /**
+     * 动作表的字符串形式，第 i 个字符对应状态 i，C 为合作、D 为背叛。
+     */
+    public String tableString() {
+        int states = stateCount(memory);
+        StringBuilder builder = new StringBuilder(states);
+        for (int state = 0; state < states; state++) {
+            builder.append(defects(words, 0, state) ? 'D' : 'C');
+        }
+        return builder.toString();
+    }
+
+    static boolean defects(long[] genomes, int offset, int state) {
+        return (genomes[offset + (state >>> 6)] >>> state & 1L) != 0;
+    }
+
+    static int initialState(long[] genomes, int offset, int memory) {
+        int states = 1 << (2 * memory);
+        int state = 0;
+        for (int bit = 0; bit < 2 * memory; bit++) {
+            int position = states + bit;
+            state |= (int) (genomes[offset + (position >>> 6)] >>> position & 1L) << bit;
+        }
+        return state;
+    }
+
+    /**
+     * @param joint 联合动作下标，与 {@link PayoffTable#index} 相同：高位是自己、低位是对手
+     */
+    static int advance(int state, int joint, int stateMask) {
+        return (state << 2 | joint) & stateMask;
+    }
+
+    /**
+     * 最后一个字中有效位的掩码，用于清除基因组末尾的多余位。
+     */
+    static long lastWordMask(int memory) {
+        int used = genomeBits(memory) & (Long.SIZE - 1);
+        return used == 0 ? -1L : (1L << used) - 1;
+    }
+
+    private static void checkMemory(int memory) {
+        if (memory < 1 || memory > MAX_MEMORY) {
+            throw new IllegalArgumentException("记忆步数需介于 1 与 " + MAX_MEMORY + " 之间。");
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LookupTableStrategy that)) {
+            return false;
+        }
+        return memory == that.memory && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * memory + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "LookupTableStrategy{memory=" + memory + ", table=" + tableString() + "}";
+    }
+}
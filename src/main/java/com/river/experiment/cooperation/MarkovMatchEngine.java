@@ -0,0 +1,138 @@
+package com.river.experiment.cooperation;
+
+import java.util.Arrays;
+
+/**
+ * 噪声下重复囚徒困境的精确期望：内置策略都是记忆一步的策略，另加一个“对手是否曾背叛”标志（供严厉惩罚者使用），
+ * 对局状态为（甲上一轮动作、乙上一轮动作、甲的标志、乙的标志）共 16 种，逐轮演化该分布即得到期望得分。
+ * <p>
+ * 每个状态下双方的合作概率在对局开始时一次算好，每轮开销为常数，分布收敛到平稳分布后剩余轮次直接按平稳分布的单轮期望补足，无需蒙特卡洛抽样。
+ */
+public final class MarkovMatchEngine {
+
+    private static final int STATE_COUNT = 16;
+    private static final double CONVERGENCE_TOLERANCE = 1e-13;
+
+    private final int rounds;
+    private final double noiseProbability;
+    private final PayoffTable payoffTable;
+
+    public MarkovMatchEngine(MatchSettings settings) {
+        this.rounds = settings.rounds();
+        this.noiseProbability = settings.noiseProbability();
+        this.payoffTable = new PayoffTable(settings);
+    }
+
+    public MatchExpectation expected(CooperationStrategy strategyA, CooperationStrategy strategyB) {
+        double[] distribution = new double[STATE_COUNT];
+        double[] next = new double[STATE_COUNT];
+        double[] perRound = new double[5];
+        double[] totals = new double[5];
+        double[] cooperationA = new double[STATE_COUNT];
+        double[] cooperationB = new double[STATE_COUNT];
+        for (int state = 0; state < STATE_COUNT; state++) {
+            Action lastA = actionA(state);
+            Action lastB = actionB(state);
+            cooperationA[state] = withNoise(strategyA.cooperationProbability(lastA, lastB, (state >>> 1 & 1) == 1));
+            cooperationB[state] = withNoise(strategyB.cooperationProbability(lastB, lastA, (state & 1) == 1));
+        }
+
+        double cooperateA = withNoise(strategyA.firstMoveCooperationProbability());
+        double cooperateB = withNoise(strategyB.firstMoveCooperationProbability());
+        spread(distribution, 1.0, cooperateA, cooperateB, 0, 0);
+        roundExpectation(distribution, perRound);
+        add(totals, perRound, 1);
+
+        for (int round = 1; round < rounds; round++) {
+            Arrays.fill(next, 0.0);
+            for (int state = 0; state < STATE_COUNT; state++) {
+                double probability = distribution[state];
+                if (probability == 0.0) {
+                    continue;
+                }
+                spread(next, probability, cooperationA[state], cooperationB[state], state >>> 1 & 1, state & 1);
+            }
+            double change = 0.0;
+            for (int state = 0; state < STATE_COUNT; state++) {
+                change = Math.max(change, Math.abs(next[state] - distribution[state]));
+            }
+            double[] swap = distribution;
+            distribution = next;
+            next = swap;
+            roundExpectation(distribution, perRound);
+            if (change < CONVERGENCE_TOLERANCE) {
+                add(totals, perRound, rounds - round);
+                break;
+            }
+            add(totals, perRound, 1);
+        }
+
+        return new MatchExpectation(
+                totals[0],
+                totals[1],
+                totals[2] / rounds,
+                totals[3] / rounds,
+                totals[4] / rounds
+        );
+    }
+
+    private double withNoise(double cooperationProbability) {
+        return cooperationProbability * (1.0 - noiseProbability) + (1.0 - cooperationProbability) * noiseProbability;
+    }
+
+    /**
+     * 把概率质量按双方本轮实际动作分到下一轮状态，对手背叛时置位己方的标志。
+     */
+    private static void spread(double[] target,
+                               double probability,
+                               double cooperateA,
+                               double cooperateB,
+                               int flagA,
+                               int flagB) {
+        for (int defectA = 0; defectA <= 1; defectA++) {
+            double probabilityA = defectA == 0 ? cooperateA : 1.0 - cooperateA;
+            for (int defectB = 0; defectB <= 1; defectB++) {
+                double probabilityB = defectB == 0 ? cooperateB : 1.0 - cooperateB;
+                int state = defectA << 3 | defectB << 2 | (flagA | defectB) << 1 | (flagB | defectA);
+                target[state] += probability * probabilityA * probabilityB;
+            }
+        }
+    }
+
+    private void roundExpectation(double[] distribution, double[] perRound) {
+        Arrays.fill(perRound, 0.0);
+        for (int state = 0; state < STATE_COUNT; state++) {
+            double probability = distribution[state];
+            if (probability == 0.0) {
+                continue;
+            }
+            Action actionA = actionA(state);
+            Action actionB = actionB(state);
+            perRound[0] += probability * payoffTable.payoff(actionA, actionB);
+            perRound[1] += probability * payoffTable.payoff(actionB, actionA);
+            if (actionA == Action.COOPERATE) {
+                perRound[2] += probability;
+            }
+            if (actionB == Action.COOPERATE) {
+                perRound[3] += probability;
+                if (actionA == Action.COOPERATE) {
+                    perRound[4] += probability;
+                }
+            }
+        }
+    }
+
+    private static void add(double[] totals, double[] perRound, int times) {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += perRound[i] * times;
+        }
+    }
+
+    private static Action actionA(int state) {
+        return (state >>> 3 & 1) == 0 ? Action.COOPERATE : Action.DEFECT;
+    }
+
+    private static Action actionB(int state) {
+        return (state >>> 2 & 1) == 0 ? Action.COOPERATE : Action.DEFECT;
+    }
+}
@@ -0,0 +1,23 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 锦标赛中单场对局的结算方式。
+ */
+public enum MatchEngine {
+
+    /**
+     * 逐轮抽样模拟，得分带有随机波动。
+     */
+    MONTE_CARLO,
+
+    /**
+     * 取 {@link PayoffMatrix#exact(MatchSettings)} 中的精确期望得分与合作率，不消耗随机数；锦标赛的随机性只剩配对顺序。
+     */
+    MARKOV_EXACT,
+
+    /**
+     * 从 {@link PayoffMatrix#sampled(MatchSettings, int, long)} 预先模拟的对局中均匀抽取一场，
+     * 保留得分的离散程度，每场对局只消耗一次随机数。
+     */
+    SAMPLED_MATRIX
+}
@@ -0,0 +1,11 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 一场对局的期望结果：双方总得分与各项合作率的数学期望。
+ */
+public record MatchExpectation(double scoreA,
+                               double scoreB,
+                               double cooperationRateA,
+                               double cooperationRateB,
+                               double mutualCooperationRate) {
+}
@@ -0,0 +1,158 @@
+package com.river.experiment.cooperation;
+
+import java.util.Random;
+
+/**
+ * 单场重复囚徒困境的对局内核：支付表与双方历史在构造时分配，之后每场对局只写入原始类型字段，
+ * 稳态下不产生任何对象。随机数的消耗顺序为“甲决策、乙决策、甲噪声、乙噪声”，与逐轮模拟的定义一致；
+ * 噪声改用 {@link NoiseSampling#GEOMETRIC_SKIP} 时，开局与每次翻转后才抽一次噪声间隔。
+ * 给定 {@link PayoffMatrix} 时改为从矩阵取一个样本：精确矩阵不消耗随机数，抽样矩阵每场只抽一次样本序号。
+ */
+final class MatchKernel {
+
+    private final int rounds;
+    private final NoiseSampler noise;
+    private final PayoffTable payoffTable;
+    private final ActionHistory historyA;
+    private final ActionHistory historyB;
+    private final PayoffMatrix matrix;
+
+    private double scoreA;
+    private double scoreB;
+    private double cooperationRateA;
+    private double cooperationRateB;
+    private double mutualCooperationRate;
+
+    MatchKernel(MatchSettings settings) {
+        this(settings, null);
+    }
+
+    MatchKernel(MatchSettings settings, PayoffMatrix matrix) {
+        this(settings, matrix, NoiseSampling.LEGACY_PER_ACTION);
+    }
+
+    MatchKernel(MatchSettings settings, PayoffMatrix matrix, NoiseSampling noiseSampling) {
+        this.rounds = settings.rounds();
+        this.noise = new NoiseSampler(noiseSampling, settings.noiseProbability());
+        this.payoffTable = new PayoffTable(settings);
+        this.historyA = new ActionHistory(rounds);
+        this.historyB = new ActionHistory(rounds);
+        this.matrix = matrix;
+    }
+
+    void play(CooperationStrategy strategyA, CooperationStrategy strategyB, Random random) {
+        if (matrix != null) {
+            int samples = matrix.samplesPerPair();
+            int index = matrix.sampleIndex(strategyA, strategyB, samples == 1 ? 0 : random.nextInt(samples));
+            scoreA = matrix.scoreA(index);
+            scoreB = matrix.scoreB(index);
+            cooperationRateA = matrix.cooperationRateA(index);
+            cooperationRateB = matrix.cooperationRateB(index);
+            mutualCooperationRate = matrix.mutualCooperationRate(index);
+            return;
+        }
+        historyA.clear();
+        historyB.clear();
+        noise.reset(random);
+        double totalA = 0.0;
+        double totalB = 0.0;
+        int cooperationA = 0;
+        int cooperationB = 0;
+        int mutualCooperation = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            Action actionA = strategyA.decide(round, historyA, historyB, random);
+            Action actionB = strategyB.decide(round, historyB, historyA, random);
+            if (noise.flips(random)) {
+                actionA = actionA.opposite();
+            }
+            if (noise.flips(random)) {
+                actionB = actionB.opposite();
+            }
+            historyA.record(actionA);
+            historyB.record(actionB);
+
+            int joint = PayoffTable.index(actionA, actionB);
+            totalA += payoffTable.payoff(joint);
+            totalB += payoffTable.payoff(PayoffTable.index(actionB, actionA));
+            // 联合下标的高位是甲的动作、低位是乙的动作，0 表示合作
+            cooperationA += (joint >>> 1) ^ 1;
+            cooperationB += (joint & 1) ^ 1;
+            if (joint == 0) {
+                mutualCooperation++;
+            }
+        }
+
+        scoreA = totalA;
+        scoreB = totalB;
+        cooperationRateA = cooperationA / (double) rounds;
+        cooperationRateB = cooperationB / (double) rounds;
+        mutualCooperationRate = mutualCooperation / (double) rounds;
+    }
+
+    /**
+     * 两个查表策略对局，基因组分别位于 {@code genomesA[offsetA..]} 与 {@code genomesB[offsetB..]}。
+     * 双方各自维护以自己视角编码的状态，决策只需一次按位取值；决策不消耗随机数，噪声的抽取顺序与上面相同。
+     * 总是逐轮模拟，不使用对局结果矩阵。
+     */
+    void play(long[] genomesA, int offsetA, long[] genomesB, int offsetB, int memory, Random random) {
+        int stateMask = LookupTableStrategy.stateCount(memory) - 1;
+        int stateA = LookupTableStrategy.initialState(genomesA, offsetA, memory);
+        int stateB = LookupTableStrategy.initialState(genomesB, offsetB, memory);
+        noise.reset(random);
+        double totalA = 0.0;
+        double totalB = 0.0;
+        int cooperationA = 0;
+        int cooperationB = 0;
+        int mutualCooperation = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            int defectA = LookupTableStrategy.defects(genomesA, offsetA, stateA) ? 1 : 0;
+            int defectB = LookupTableStrategy.defects(genomesB, offsetB, stateB) ? 1 : 0;
+            if (noise.flips(random)) {
+                defectA ^= 1;
+            }
+            if (noise.flips(random)) {
+                defectB ^= 1;
+            }
+
+            int joint = defectA << 1 | defectB;
+            int mirrored = defectB << 1 | defectA;
+            stateA = LookupTableStrategy.advance(stateA, joint, stateMask);
+            stateB = LookupTableStrategy.advance(stateB, mirrored, stateMask);
+            totalA += payoffTable.payoff(joint);
+            totalB += payoffTable.payoff(mirrored);
+            cooperationA += defectA ^ 1;
+            cooperationB += defectB ^ 1;
+            if (joint == 0) {
+                mutualCooperation++;
+            }
+        }
+
+        scoreA = totalA;
+        scoreB = totalB;
+        cooperationRateA = cooperationA / (double) rounds;
+        cooperationRateB = cooperationB / (double) rounds;
+        mutualCooperationRate = mutualCooperation / (double) rounds;
+    }
+
+    double scoreA() {
+        return scoreA;
+    }
+
+    double scoreB() {
+        return scoreB;
+    }
+
+    double cooperationRateA() {
+        return cooperationRateA;
+    }
+
+    double cooperationRateB() {
+        return cooperationRateB;
+    }
+
+    double mutualCooperationRate() {
+        return mutualCooperationRate;
+    }
+}
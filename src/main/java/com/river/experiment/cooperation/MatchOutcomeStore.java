@@ -0,0 +1,254 @@
+package com.river.experiment.cooperation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * 列式存放的逐场对局结果：角色以整数下标、策略以序号字节、得分与合作率以 double 列保存，
+ * 不为每场对局创建对象。
+ * <p>
+ * 数据按每页 65536 场分页，页内各列连续排列；页可以分配在堆内，也可以映射到磁盘文件，
+ * 大规模锦标赛的结果因此不占用堆内存。遍历与筛选通过 {@link #matchIndices()} 按下标读取各列，
+ * 只有 {@link #get(int)} 与 {@link #asList()} 视图才会物化 {@link MatchOutcome}。
+ */
+public final class MatchOutcomeStore implements Closeable {
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_ROWS = 1 << PAGE_SHIFT;
+    private static final int ROW_MASK = PAGE_ROWS - 1;
+    private static final int AGENT_A_OFFSET = 0;
+    private static final int AGENT_B_OFFSET = AGENT_A_OFFSET + Integer.BYTES * PAGE_ROWS;
+    private static final int STRATEGY_A_OFFSET = AGENT_B_OFFSET + Integer.BYTES * PAGE_ROWS;
+    private static final int STRATEGY_B_OFFSET = STRATEGY_A_OFFSET + PAGE_ROWS;
+    private static final int SCORE_A_OFFSET = STRATEGY_B_OFFSET + PAGE_ROWS;
+    private static final int SCORE_B_OFFSET = SCORE_A_OFFSET + Double.BYTES * PAGE_ROWS;
+    private static final int COOPERATION_A_OFFSET = SCORE_B_OFFSET + Double.BYTES * PAGE_ROWS;
+    private static final int COOPERATION_B_OFFSET = COOPERATION_A_OFFSET + Double.BYTES * PAGE_ROWS;
+    private static final int MUTUAL_COOPERATION_OFFSET = COOPERATION_B_OFFSET + Double.BYTES * PAGE_ROWS;
+    private static final int PAGE_BYTES = MUTUAL_COOPERATION_OFFSET + Double.BYTES * PAGE_ROWS;
+    private static final CooperationStrategy[] STRATEGIES = CooperationStrategy.values();
+
+    private final List<String> agentIds;
+    private final FileChannel channel;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private int size;
+
+    private MatchOutcomeStore(List<String> agentIds, FileChannel channel) {
+        this.agentIds = List.copyOf(agentIds);
+        this.channel = channel;
+    }
+
+    /**
+     * 页分配在堆内的存储。
+     *
+     * @param agentIds 角色下标到角色编号的映射
+     */
+    public static MatchOutcomeStore inMemory(List<String> agentIds) {
+        return new MatchOutcomeStore(agentIds, null);
+    }
+
+    /**
+     * 页映射到 {@code file} 的存储，文件不存在时创建、已存在时覆盖。
+     */
+    public static MatchOutcomeStore memoryMapped(List<String> agentIds, Path file) throws IOException {
+        FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+        return new MatchOutcomeStore(agentIds, channel);
+    }
+
+    /**
+     * 由逐场对象构造堆内存储，角色下标按首次出现的顺序分配。
+     */
+    public static MatchOutcomeStore of(List<MatchOutcome> outcomes) {
+        Map<String, Integer> indices = new HashMap<>();
+        List<String> agentIds = new ArrayList<>();
+        for (MatchOutcome outcome : outcomes) {
+            for (String id : new String[]{outcome.participantAId(), outcome.participantBId()}) {
+                if (indices.putIfAbsent(id, agentIds.size()) == null) {
+                    agentIds.add(id);
+                }
+            }
+        }
+        MatchOutcomeStore store = inMemory(agentIds);
+        for (MatchOutcome outcome : outcomes) {
+            store.append(
+                    indices.get(outcome.participantAId()),
+                    indices.get(outcome.participantBId()),
+                    outcome.strategyA(),
+                    outcome.strategyB(),
+                    outcome.scoreA(),
+                    outcome.scoreB(),
+                    outcome.cooperationRateA(),
+                    outcome.cooperationRateB(),
+                    outcome.mutualCooperationRate()
+            );
+        }
+        return store;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isMemoryMapped() {
+        return channel != null;
+    }
+
+    public int agentCount() {
+        return agentIds.size();
+    }
+
+    public String agentId(int agent) {
+        return agentIds.get(agent);
+    }
+
+    /**
+     * 全部对局下标 {@code 0..size-1}，配合各列访问器做遍历与筛选。
+     */
+    public IntStream matchIndices() {
+        return IntStream.range(0, size);
+    }
+
+    public int agentA(int match) {
+        return page(match).getInt(AGENT_A_OFFSET + Integer.BYTES * (match & ROW_MASK));
+    }
+
+    public int agentB(int match) {
+        return page(match).getInt(AGENT_B_OFFSET + Integer.BYTES * (match & ROW_MASK));
+    }
+
+    public CooperationStrategy strategyA(int match) {
+        return STRATEGIES[page(match).get(STRATEGY_A_OFFSET + (match & ROW_MASK))];
+    }
+
+    public CooperationStrategy strategyB(int match) {
+        return STRATEGIES[page(match).get(STRATEGY_B_OFFSET + (match & ROW_MASK))];
+    }
+
+    public double scoreA(int match) {
+        return page(match).getDouble(SCORE_A_OFFSET + Double.BYTES * (match & ROW_MASK));
+    }
+
+    public double scoreB(int match) {
+        return page(match).getDouble(SCORE_B_OFFSET + Double.BYTES * (match & ROW_MASK));
+    }
+
+    public double cooperationRateA(int match) {
+        return page(match).getDouble(COOPERATION_A_OFFSET + Double.BYTES * (match & ROW_MASK));
+    }
+
+    public double cooperationRateB(int match) {
+        return page(match).getDouble(COOPERATION_B_OFFSET + Double.BYTES * (match & ROW_MASK));
+    }
+
+    public double mutualCooperationRate(int match) {
+        return page(match).getDouble(MUTUAL_COOPERATION_OFFSET + Double.BYTES * (match & ROW_MASK));
+    }
+
+    /**
+     * 物化单场对局结果。
+     */
+    public MatchOutcome get(int match) {
+        return new MatchOutcome(
+                agentId(agentA(match)),
+                agentId(agentB(match)),
+                strategyA(match),
+                strategyB(match),
+                scoreA(match),
+                scoreB(match),
+                cooperationRateA(match),
+                cooperationRateB(match),
+                mutualCooperationRate(match)
+        );
+    }
+
+    /**
+     * 只读的列表视图，访问元素时才物化 {@link MatchOutcome}。
+     */
+    public List<MatchOutcome> asList() {
+        return new OutcomeList();
+    }
+
+    void append(int agentA,
+                int agentB,
+                CooperationStrategy strategyA,
+                CooperationStrategy strategyB,
+                double scoreA,
+                double scoreB,
+                double cooperationRateA,
+                double cooperationRateB,
+                double mutualCooperationRate) {
+        int row = size & ROW_MASK;
+        if (row == 0) {
+            pages.add(allocatePage(pages.size()));
+        }
+        ByteBuffer page = pages.get(pages.size() - 1);
+        page.putInt(AGENT_A_OFFSET + Integer.BYTES * row, agentA);
+        page.putInt(AGENT_B_OFFSET + Integer.BYTES * row, agentB);
+        page.put(STRATEGY_A_OFFSET + row, (byte) strategyA.ordinal());
+        page.put(STRATEGY_B_OFFSET + row, (byte) strategyB.ordinal());
+        page.putDouble(SCORE_A_OFFSET + Double.BYTES * row, scoreA);
+        page.putDouble(SCORE_B_OFFSET + Double.BYTES * row, scoreB);
+        page.putDouble(COOPERATION_A_OFFSET + Double.BYTES * row, cooperationRateA);
+        page.putDouble(COOPERATION_B_OFFSET + Double.BYTES * row, cooperationRateB);
+        page.putDouble(MUTUAL_COOPERATION_OFFSET + Double.BYTES * row, mutualCooperationRate);
+        size++;
+    }
+
+    /**
+     * 关闭映射文件的通道；已映射的页在存储对象被回收前仍可读取。堆内存储无需关闭。
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private ByteBuffer page(int match) {
+        Objects.checkIndex(match, size);
+        return pages.get(match >>> PAGE_SHIFT);
+    }
+
+    private ByteBuffer allocatePage(int pageIndex) {
+        if (channel == null) {
+            return ByteBuffer.allocate(PAGE_BYTES);
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) pageIndex * PAGE_BYTES, PAGE_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("映射对局结果文件失败。", e);
+        }
+    }
+
+    private final class OutcomeList extends AbstractList<MatchOutcome> implements RandomAccess {
+
+        @Override
+        public MatchOutcome get(int index) {
+            return MatchOutcomeStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
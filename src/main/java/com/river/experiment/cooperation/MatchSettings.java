@@ -1,5 +1,7 @@
 package com.river.experiment.cooperation;
 
+import java.util.Objects;
+
 /**
  * 囚徒困境对局设置，方便调整轮数、噪声与支付矩阵。
  */
@@ -59,4 +61,25 @@ public final class MatchSettings {
     public double sucker() {
         return sucker;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof MatchSettings that)) {
+            return false;
+        }
+        return rounds == that.rounds
+                && Double.compare(noiseProbability, that.noiseProbability) == 0
+                && Double.compare(reward, that.reward) == 0
+                && Double.compare(temptation, that.temptation) == 0
+                && Double.compare(punishment, that.punishment) == 0
+                && Double.compare(sucker, that.sucker) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rounds, noiseProbability, reward, temptation, punishment, sucker);
+    }
 }
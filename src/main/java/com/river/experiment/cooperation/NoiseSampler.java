@@ -0,0 +1,56 @@
+package com.river.experiment.cooperation;
+
+import java.util.Random;
+
+/**
+ * 按 {@link NoiseSampling} 决定每个动作是否因噪声翻转，由对局内核持有并在每场开局时重置。
+ */
+final class NoiseSampler {
+
+    private final NoiseSampling sampling;
+    private final double noiseProbability;
+    private final double logKeep;
+    // 几何模式下距离下一次翻转还需经过的未翻转动作数
+    private long remaining;
+
+    NoiseSampler(NoiseSampling sampling, double noiseProbability) {
+        this.sampling = sampling;
+        this.noiseProbability = noiseProbability;
+        this.logKeep = Math.log1p(-noiseProbability);
+    }
+
+    /**
+     * 开始新的一场对局。几何模式下抽取第一段间隔，逐动作模式不消耗随机数。
+     */
+    void reset(Random random) {
+        if (sampling == NoiseSampling.GEOMETRIC_SKIP) {
+            remaining = gap(random);
+        }
+    }
+
+    boolean flips(Random random) {
+        if (sampling == NoiseSampling.LEGACY_PER_ACTION) {
+            return random.nextDouble() < noiseProbability;
+        }
+        if (remaining > 0) {
+            remaining--;
+            return false;
+        }
+        remaining = gap(random);
+        return true;
+    }
+
+    /**
+     * 抽取 {@code P(k) = (1-p)^k · p} 的几何分布间隔；p 为 0 时永不翻转，为 1 时每个动作都翻转。
+     */
+    private long gap(Random random) {
+        if (noiseProbability <= 0.0) {
+            return Long.MAX_VALUE;
+        }
+        if (noiseProbability >= 1.0) {
+            return 0L;
+        }
+        double gap = Math.floor(Math.log(1.0 - random.nextDouble()) / logKeep);
+        return gap < Long.MAX_VALUE ? (long) gap : Long.MAX_VALUE;
+    }
+}
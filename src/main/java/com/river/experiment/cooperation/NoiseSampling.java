@@ -0,0 +1,19 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 动作噪声的抽样方式，两者给出的翻转分布相同，只是消耗随机数的方式不同。
+ */
+public enum NoiseSampling {
+
+    /**
+     * 每个动作各抽一次随机数判断是否翻转，与历史版本逐位一致。
+     */
+    LEGACY_PER_ACTION,
+
+    /**
+     * 把一场对局中双方的动作按“甲、乙、甲、乙……”排成一列，按几何分布抽取到下一次翻转之间的间隔，
+     * 每场开局和每次翻转后各抽一次。噪声概率为 p 时随机数调用约为逐动作抽样的 p 倍加每场一次，
+     * 1%–2% 的常见噪声下约减少 50 倍；随机序列与 {@link #LEGACY_PER_ACTION} 不同。
+     */
+    GEOMETRIC_SKIP
+}
@@ -0,0 +1,174 @@
+package com.river.experiment.cooperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * 策略 × 策略的对局结果矩阵：对每个有序策略对保存若干场对局的得分与合作率，
+ * 精确矩阵每对只有一个样本（{@link MarkovMatchEngine} 的期望值），抽样矩阵每对保存固定预算的蒙特卡洛对局。
+ * <p>
+ * 结果只取决于 {@link MatchSettings}（抽样矩阵另加预算与种子），构造后按该键缓存，
+ * 同一设置下改变角色数或配对轮次的重复运行直接复用，不再重新模拟。
+ */
+public final class PayoffMatrix {
+
+    private static final int STRATEGY_COUNT = CooperationStrategy.values().length;
+    private static final int MAX_CACHED_MATRICES = 16;
+    private static final Map<Key, PayoffMatrix> CACHE = new LinkedHashMap<>(MAX_CACHED_MATRICES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PayoffMatrix> eldest) {
+            return size() > MAX_CACHED_MATRICES;
+        }
+    };
+
+    private final MatchSettings settings;
+    private final int samplesPerPair;
+    private final double[] scoreA;
+    private final double[] scoreB;
+    private final double[] cooperationRateA;
+    private final double[] cooperationRateB;
+    private final double[] mutualCooperationRate;
+    private final double[] meanScore;
+
+    private PayoffMatrix(MatchSettings settings, int samplesPerPair) {
+        int size = STRATEGY_COUNT * STRATEGY_COUNT * samplesPerPair;
+        this.settings = settings;
+        this.samplesPerPair = samplesPerPair;
+        this.scoreA = new double[size];
+        this.scoreB = new double[size];
+        this.cooperationRateA = new double[size];
+        this.cooperationRateB = new double[size];
+        this.mutualCooperationRate = new double[size];
+        this.meanScore = new double[STRATEGY_COUNT * STRATEGY_COUNT];
+    }
+
+    /**
+     * 由马尔可夫链精确期望构成的矩阵。
+     */
+    public static PayoffMatrix exact(MatchSettings settings) {
+        return cached(new Key(settings, 0, 0L), () -> {
+            PayoffMatrix matrix = new PayoffMatrix(settings, 1);
+            MarkovMatchEngine engine = new MarkovMatchEngine(settings);
+            for (CooperationStrategy strategyA : CooperationStrategy.values()) {
+                for (CooperationStrategy strategyB : CooperationStrategy.values()) {
+                    MatchExpectation expectation = engine.expected(strategyA, strategyB);
+                    int index = matrix.sampleIndex(strategyA, strategyB, 0);
+                    matrix.scoreA[index] = expectation.scoreA();
+                    matrix.scoreB[index] = expectation.scoreB();
+                    matrix.cooperationRateA[index] = expectation.cooperationRateA();
+                    matrix.cooperationRateB[index] = expectation.cooperationRateB();
+                    matrix.mutualCooperationRate[index] = expectation.mutualCooperationRate();
+                }
+            }
+            matrix.computeMeans();
+            return matrix;
+        });
+    }
+
+    /**
+     * 每个有序策略对预先模拟 {@code samplesPerPair} 场对局构成的矩阵，按策略序号依次使用同一随机数序列。
+     */
+    public static PayoffMatrix sampled(MatchSettings settings, int samplesPerPair, long seed) {
+        if (samplesPerPair <= 0) {
+            throw new IllegalArgumentException("每个策略对的样本数必须为正数。");
+        }
+        return cached(new Key(settings, samplesPerPair, seed), () -> {
+            PayoffMatrix matrix = new PayoffMatrix(settings, samplesPerPair);
+            MatchKernel kernel = new MatchKernel(settings);
+            // 与使用同一种子的锦标赛配对序列错开
+            Random random = new Random(seed * 0x9E3779B97F4A7C15L);
+            for (CooperationStrategy strategyA : CooperationStrategy.values()) {
+                for (CooperationStrategy strategyB : CooperationStrategy.values()) {
+                    for (int sample = 0; sample < samplesPerPair; sample++) {
+                        kernel.play(strategyA, strategyB, random);
+                        int index = matrix.sampleIndex(strategyA, strategyB, sample);
+                        matrix.scoreA[index] = kernel.scoreA();
+                        matrix.scoreB[index] = kernel.scoreB();
+                        matrix.cooperationRateA[index] = kernel.cooperationRateA();
+                        matrix.cooperationRateB[index] = kernel.cooperationRateB();
+                        matrix.mutualCooperationRate[index] = kernel.mutualCooperationRate();
+                    }
+                }
+            }
+            matrix.computeMeans();
+            return matrix;
+        });
+    }
+
+    private static PayoffMatrix cached(Key key, Supplier<PayoffMatrix> builder) {
+        synchronized (CACHE) {
+            PayoffMatrix matrix = CACHE.get(key);
+            if (matrix == null) {
+                matrix = builder.get();
+                CACHE.put(key, matrix);
+            }
+            return matrix;
+        }
+    }
+
+    public MatchSettings settings() {
+        return settings;
+    }
+
+    public int samplesPerPair() {
+        return samplesPerPair;
+    }
+
+    /**
+     * {@code self} 对阵 {@code opponent} 时己方的平均单场总得分。
+     */
+    public double meanScore(CooperationStrategy self, CooperationStrategy opponent) {
+        return meanScore[self.ordinal() * STRATEGY_COUNT + opponent.ordinal()];
+    }
+
+    /**
+     * {@code self} 对阵 {@code opponent} 时己方的平均合作率。
+     */
+    public double meanCooperationRate(CooperationStrategy self, CooperationStrategy opponent) {
+        int from = sampleIndex(self, opponent, 0);
+        double sum = 0.0;
+        for (int sample = 0; sample < samplesPerPair; sample++) {
+            sum += cooperationRateA[from + sample];
+        }
+        return sum / samplesPerPair;
+    }
+
+    int sampleIndex(CooperationStrategy strategyA, CooperationStrategy strategyB, int sample) {
+        return (strategyA.ordinal() * STRATEGY_COUNT + strategyB.ordinal()) * samplesPerPair + sample;
+    }
+
+    double scoreA(int index) {
+        return scoreA[index];
+    }
+
+    double scoreB(int index) {
+        return scoreB[index];
+    }
+
+    double cooperationRateA(int index) {
+        return cooperationRateA[index];
+    }
+
+    double cooperationRateB(int index) {
+        return cooperationRateB[index];
+    }
+
+    double mutualCooperationRate(int index) {
+        return mutualCooperationRate[index];
+    }
+
+    private void computeMeans() {
+        for (int pair = 0; pair < meanScore.length; pair++) {
+            double sum = 0.0;
+            for (int sample = 0; sample < samplesPerPair; sample++) {
+                sum += scoreA[pair * samplesPerPair + sample];
+            }
+            meanScore[pair] = sum / samplesPerPair;
+        }
+    }
+
+    private record Key(MatchSettings settings, int samplesPerPair, long seed) {
+    }
+}
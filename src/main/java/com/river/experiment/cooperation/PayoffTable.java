@@ -0,0 +1,31 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 由 {@link MatchSettings} 预先展开的 2×2 支付表，按“己方动作序号 × 2 + 对方动作序号”下标直接取得己方得分。
+ */
+final class PayoffTable {
+
+    private final double[] payoffs = new double[4];
+
+    PayoffTable(MatchSettings settings) {
+        payoffs[index(Action.COOPERATE, Action.COOPERATE)] = settings.reward();
+        payoffs[index(Action.COOPERATE, Action.DEFECT)] = settings.sucker();
+        payoffs[index(Action.DEFECT, Action.COOPERATE)] = settings.temptation();
+        payoffs[index(Action.DEFECT, Action.DEFECT)] = settings.punishment();
+    }
+
+    static int index(Action self, Action opponent) {
+        return self.ordinal() << 1 | opponent.ordinal();
+    }
+
+    double payoff(Action self, Action opponent) {
+        return payoffs[index(self, opponent)];
+    }
+
+    /**
+     * 按联合状态下标（己方视角）取得分。
+     */
+    double payoff(int jointIndex) {
+        return payoffs[jointIndex];
+    }
+}
@@ -0,0 +1,42 @@
+package com.river.experiment.cooperation;
+
+import java.nio.file.Path;
+
+/**
+ * 空间囚徒困境入口：在 8192×8192 的环面格子上运行 Nowak–May 博弈，
+ * 定期输出格子快照，并打印合作者占比的变化。
+ */
+public final class SpatialGameApp {
+
+    public static void main(String[] args) throws Exception {
+        // Nowak–May 的弱囚徒困境：R = 1，T = b，P = S = 0；轮数与噪声在空间博弈中不使用
+        MatchSettings settings = new MatchSettings(1, 0.0, 1.0, 1.85, 0.0, 0.0);
+        SpatialGameParameters parameters = new SpatialGameParameters(
+                8192,     // 格子宽度
+                8192,     // 格子高度
+                2000,     // 同步更新步数
+                0.9,      // 初始合作者占比
+                true,     // 包含自我对局
+                200       // 快照间隔
+        );
+        SpatialGameSimulation simulation = new SpatialGameSimulation(settings, parameters, 42L);
+
+        Path outputDirectory = Path.of("articles", "generated", "assets", "spatial-cooperation");
+        SpatialGameResult result = simulation.run(outputDirectory);
+
+        System.out.println("空间囚徒困境（Nowak–May）");
+        System.out.printf("  格子=%d×%d, 步数=%d, 耗时=%.1f 秒%n",
+                parameters.width(), parameters.height(), parameters.steps(), result.elapsedNanos() / 1e9);
+        // 与快照一致：第 0 步、每隔 snapshotInterval 步以及最后一步；间隔为 0 时只输出首末两步
+        int interval = parameters.snapshotInterval() > 0 ? parameters.snapshotInterval() : parameters.steps();
+        for (int step = 0; step < parameters.steps(); step += interval) {
+            System.out.printf("  第 %d 步合作者占比：%.2f%%%n", step, 100 * result.cooperatorShare(step));
+        }
+        System.out.printf("  第 %d 步合作者占比：%.2f%%%n", parameters.steps(), 100 * result.finalCooperatorShare());
+        System.out.println("格子快照：");
+        result.snapshots().forEach(path -> System.out.println("  " + path.toAbsolutePath()));
+    }
+
+    private SpatialGameApp() {
+    }
+}
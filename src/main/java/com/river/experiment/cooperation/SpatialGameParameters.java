@@ -0,0 +1,37 @@
+package com.river.experiment.cooperation;
+
+/**
+ * 空间囚徒困境（Nowak–May 格子博弈）的参数设定。
+ *
+ * @param width                  格子宽度，须为 64 的正整数倍
+ * @param height                 格子高度，至少为 3
+ * @param steps                  同步更新的步数
+ * @param initialCooperatorShare 初始合作者占比
+ * @param selfInteraction        是否与自己对局一次（Nowak–May 原始设定包含自我对局）
+ * @param snapshotInterval       每隔多少步输出一张快照，0 表示只输出首末两张
+ */
+public record SpatialGameParameters(int width,
+                                    int height,
+                                    int steps,
+                                    double initialCooperatorShare,
+                                    boolean selfInteraction,
+                                    int snapshotInterval) {
+
+    public SpatialGameParameters {
+        if (width <= 0 || width % Long.SIZE != 0) {
+            throw new IllegalArgumentException("格子宽度必须是 64 的正整数倍。");
+        }
+        if (height < 3) {
+            throw new IllegalArgumentException("格子高度至少为 3。");
+        }
+        if (steps <= 0) {
+            throw new IllegalArgumentException("模拟步数必须为正数。");
+        }
+        if (initialCooperatorShare < 0 || initialCooperatorShare > 1) {
+            throw new IllegalArgumentException("初始合作者占比需介于 0 与 1 之间。");
+        }
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("快照间隔不能为负数。");
+        }
+    }
+}
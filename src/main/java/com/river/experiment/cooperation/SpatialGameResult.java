@@ -0,0 +1,63 @@
+package com.river.experiment.cooperation;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import com.river.experiment.core.chart.ChartSeries;
+
+/**
+ * 空间囚徒困境的运行结果：逐步的合作者占比与输出的快照文件。
+ */
+public final class SpatialGameResult {
+
+    private final SpatialGameParameters parameters;
+    private final double[] cooperatorShares;
+    private final List<Path> snapshots;
+    private final long elapsedNanos;
+
+    SpatialGameResult(SpatialGameParameters parameters,
+                      double[] cooperatorShares,
+                      List<Path> snapshots,
+                      long elapsedNanos) {
+        this.parameters = parameters;
+        this.cooperatorShares = cooperatorShares;
+        this.snapshots = List.copyOf(snapshots);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SpatialGameParameters parameters() {
+        return parameters;
+    }
+
+    /**
+     * 第 {@code step} 步结束后的合作者占比，第 0 步为初始状态。
+     */
+    public double cooperatorShare(int step) {
+        return cooperatorShares[step];
+    }
+
+    public double finalCooperatorShare() {
+        return cooperatorShares[cooperatorShares.length - 1];
+    }
+
+    public List<Path> snapshots() {
+        return snapshots;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * “合作者占比（%）随步数变化”的序列，可直接放入图表。
+     */
+    public ChartSeries shareSeries() {
+        double[] steps = new double[cooperatorShares.length];
+        double[] percent = new double[cooperatorShares.length];
+        for (int step = 0; step < cooperatorShares.length; step++) {
+            steps[step] = step;
+            percent[step] = cooperatorShares[step] * 100;
+        }
+        return new ChartSeries("合作者", steps, percent);
+    }
+}
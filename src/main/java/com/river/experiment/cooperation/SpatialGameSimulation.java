@@ -0,0 +1,320 @@
+package com.river.experiment.cooperation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import com.river.experiment.core.ChunkAction;
+import com.river.experiment.core.RandomStreams;
+import com.river.experiment.core.chart.LatticeRenderer;
+
+/**
+ * 空间囚徒困境（Nowak–May）：每个格点一名只会无条件合作或背叛的个体，位于首尾相接的环面上，
+ * 每步与 8 个邻居（可选再加自己）各进行一次单轮博弈，得分取 {@link MatchSettings} 的 R/T/P/S，
+ * 轮数与噪声不参与；随后所有格点同步改用 3×3 邻域（含自身）中得分最高者的策略，
+ * 最高分同时出现在合作者与背叛者身上时保留原策略。
+ * <p>
+ * 策略按位压缩在 {@code long[]} 中（1 表示合作），一次处理 64 个格点：
+ * <ol>
+ *     <li>合作邻居数由位切片加法器得到四个位平面，得分只取决于（自身策略, 合作邻居数）共 18 类；</li>
+ *     <li>18 类得分预先按从高到低去重分级，每行为每一级生成“该级合作者 / 背叛者”两个位平面
+ *         （同一字的各级平面相邻存放），并做左右膨胀；</li>
+ *     <li>逐级把上中下三行的膨胀平面取或，即得“邻域内该级是否有合作者 / 背叛者”，
+ *         从最高级往下，首次命中的格点即确定新策略，整字全部确定后提前结束。</li>
+ * </ol>
+ * 行按 64 行一条带在 ForkJoinPool 上并行，每个条带只保留三行的分级平面滚动使用，
+ * 只读取当前代网格、写入自己的下一代行。除初始随机布局外更新是确定性的，结果与线程数无关。
+ */
+public final class SpatialGameSimulation {
+
+    private static final int STRIPE_ROWS = 64;
+    private static final int NEIGHBOURS = 8;
+    private static final int INITIALIZATION_ROUND = -1;
+    private static final int SNAPSHOT_SIDE = 1024;
+
+    private final SpatialGameParameters parameters;
+    private final long seed;
+    private final int parallelism;
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final int stripeCount;
+    private final int levelCount;
+    private final int planesPerWord;
+    // 合作邻居数为 k 的合作者 / 背叛者所在的位平面：第 l 级的合作者平面为 2l，背叛者平面为 2l + 1
+    private final int[] cooperatorPlane = new int[NEIGHBOURS + 1];
+    private final int[] defectorPlane = new int[NEIGHBOURS + 1];
+    private final long[][] stripePlanes;
+    // 每个条带的“合作邻居数恰为 k”位平面暂存区，避免逐行分配
+    private final long[][] stripeCounts;
+    private final long[] stripeCooperators;
+    private long[] grid;
+    private long[] nextGrid;
+
+    public SpatialGameSimulation(MatchSettings settings, SpatialGameParameters parameters, long seed) {
+        this(settings, parameters, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism 线程数，不影响结果
+     */
+    public SpatialGameSimulation(MatchSettings settings,
+                                 SpatialGameParameters parameters,
+                                 long seed,
+                                 int parallelism) {
+        Objects.requireNonNull(settings, "settings");
+        this.parameters = Objects.requireNonNull(parameters, "parameters");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.width = parameters.width();
+        this.height = parameters.height();
+        this.wordsPerRow = width / Long.SIZE;
+        this.stripeCount = (height + STRIPE_ROWS - 1) / STRIPE_ROWS;
+        this.grid = new long[wordsPerRow * height];
+        this.nextGrid = new long[wordsPerRow * height];
+
+        double[] cooperatorScores = new double[NEIGHBOURS + 1];
+        double[] defectorScores = new double[NEIGHBOURS + 1];
+        double[] distinct = new double[2 * (NEIGHBOURS + 1)];
+        for (int k = 0; k <= NEIGHBOURS; k++) {
+            cooperatorScores[k] = k * settings.reward() + (NEIGHBOURS - k) * settings.sucker()
+                    + (parameters.selfInteraction() ? settings.reward() : 0.0);
+            defectorScores[k] = k * settings.temptation() + (NEIGHBOURS - k) * settings.punishment()
+                    + (parameters.selfInteraction() ? settings.punishment() : 0.0);
+            distinct[k] = cooperatorScores[k];
+            distinct[NEIGHBOURS + 1 + k] = defectorScores[k];
+        }
+        double[] levels = Arrays.stream(distinct).distinct().sorted().toArray();
+        this.levelCount = levels.length;
+        this.planesPerWord = 2 * levelCount;
+        for (int k = 0; k <= NEIGHBOURS; k++) {
+            // levels 升序排列，第 0 级为最高分
+            cooperatorPlane[k] = 2 * (levelCount - 1 - Arrays.binarySearch(levels, cooperatorScores[k]));
+            defectorPlane[k] = 2 * (levelCount - 1 - Arrays.binarySearch(levels, defectorScores[k])) + 1;
+        }
+        this.stripePlanes = new long[stripeCount][3 * planesPerWord * wordsPerRow];
+        this.stripeCounts = new long[stripeCount][NEIGHBOURS + 1];
+        this.stripeCooperators = new long[stripeCount];
+    }
+
+    public boolean isCooperator(int x, int y) {
+        return (grid[y * wordsPerRow + (x >>> 6)] >>> (x & 63) & 1L) != 0;
+    }
+
+    public SpatialGameResult run() {
+        try {
+            return run(null);
+        } catch (IOException e) {
+            throw new IllegalStateException("未输出快照时不应发生 I/O 错误。", e);
+        }
+    }
+
+    /**
+     * 运行全部步数，并在第 0 步、每隔 {@code snapshotInterval} 步以及最后一步向 {@code snapshotDirectory}
+     * 输出快照（边长不超过 1024 像素）；目录为 {@code null} 时不输出快照。
+     */
+    public SpatialGameResult run(Path snapshotDirectory) throws IOException {
+        long started = System.nanoTime();
+        int steps = parameters.steps();
+        double cells = (double) width * height;
+        double[] shares = new double[steps + 1];
+        List<Path> snapshots = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ChunkAction.forEach(pool, stripeCount, this::randomizeStripe);
+            shares[0] = sumCooperators() / cells;
+            if (snapshotDirectory != null) {
+                snapshots.add(snapshot(snapshotDirectory, 0, grid));
+            }
+            for (int step = 1; step <= steps; step++) {
+                ChunkAction.forEach(pool, stripeCount, this::stepStripe);
+                long[] previous = grid;
+                grid = nextGrid;
+                nextGrid = previous;
+                shares[step] = sumCooperators() / cells;
+                int interval = parameters.snapshotInterval();
+                if (snapshotDirectory != null && (step == steps || interval > 0 && step % interval == 0)) {
+                    snapshots.add(snapshot(snapshotDirectory, step, previous));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new SpatialGameResult(parameters, shares, snapshots, System.nanoTime() - started);
+    }
+
+    private Path snapshot(Path directory, int step, long[] previous) throws IOException {
+        return LatticeRenderer.render(
+                directory.resolve(String.format("step-%05d.png", step)),
+                width,
+                height,
+                grid,
+                previous,
+                SNAPSHOT_SIDE
+        );
+    }
+
+    private long sumCooperators() {
+        long total = 0;
+        for (long count : stripeCooperators) {
+            total += count;
+        }
+        return total;
+    }
+
+    private int stripeStart(int stripe) {
+        return stripe * STRIPE_ROWS;
+    }
+
+    private int stripeEnd(int stripe) {
+        return Math.min(height, (stripe + 1) * STRIPE_ROWS);
+    }
+
+    private void randomizeStripe(int stripe) {
+        SplittableRandom random = RandomStreams.stream(seed, INITIALIZATION_ROUND, stripe);
+        double share = parameters.initialCooperatorShare();
+        int from = stripeStart(stripe) * wordsPerRow;
+        int to = stripeEnd(stripe) * wordsPerRow;
+        long cooperators = 0;
+        for (int word = from; word < to; word++) {
+            long bits = 0L;
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                if (random.nextDouble() < share) {
+                    bits |= 1L << bit;
+                }
+            }
+            grid[word] = bits;
+            cooperators += Long.bitCount(bits);
+        }
+        stripeCooperators[stripe] = cooperators;
+    }
+
+    /**
+     * 三行分级平面按行号模 3 滚动：先备好上光环行与首行，之后每处理一行只新算其下一行。
+     */
+    private void stepStripe(int stripe) {
+        int start = stripeStart(stripe);
+        int end = stripeEnd(stripe);
+        long[] planes = stripePlanes[stripe];
+        long[] counts = stripeCounts[stripe];
+        int rowPlanes = planesPerWord * wordsPerRow;
+        classifyRow(start - 1, planes, counts, slot(start - 1) * rowPlanes);
+        classifyRow(start, planes, counts, slot(start) * rowPlanes);
+        long cooperators = 0;
+        for (int row = start; row < end; row++) {
+            classifyRow(row + 1, planes, counts, slot(row + 1) * rowPlanes);
+            int above = slot(row - 1) * rowPlanes;
+            int centre = slot(row) * rowPlanes;
+            int below = slot(row + 1) * rowPlanes;
+            int out = row * wordsPerRow;
+            for (int word = 0; word < wordsPerRow; word++) {
+                long own = grid[out + word];
+                long result = own;
+                long undecided = -1L;
+                int base = word * planesPerWord;
+                for (int level = 0; level < levelCount; level++) {
+                    int c = base + 2 * level;
+                    int d = c + 1;
+                    long nc = planes[above + c] | planes[centre + c] | planes[below + c];
+                    long nd = planes[above + d] | planes[centre + d] | planes[below + d];
+                    long hit = (nc | nd) & undecided;
+                    if (hit != 0) {
+                        // 只有合作者达到最高分则合作，只有背叛者则背叛，两者都有则保留原策略
+                        result = (result & ~hit) | (hit & nc & (~nd | own));
+                        undecided &= ~hit;
+                        if (undecided == 0) {
+                            break;
+                        }
+                    }
+                }
+                nextGrid[out + word] = result;
+                cooperators += Long.bitCount(result);
+            }
+        }
+        stripeCooperators[stripe] = cooperators;
+    }
+
+    private static int slot(int row) {
+        return Math.floorMod(row, 3);
+    }
+
+    /**
+     * 为第 {@code row} 行（按环面取模）生成每一级的合作者 / 背叛者位平面，并向左右各膨胀一格。
+     */
+    private void classifyRow(int row, long[] planes, long[] counts, int offset) {
+        int wrapped = Math.floorMod(row, height);
+        int up = Math.floorMod(wrapped - 1, height) * wordsPerRow;
+        int middle = wrapped * wordsPerRow;
+        int down = Math.floorMod(wrapped + 1, height) * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            int previous = word == 0 ? wordsPerRow - 1 : word - 1;
+            int next = word == wordsPerRow - 1 ? 0 : word + 1;
+            long u = grid[up + word];
+            long m = grid[middle + word];
+            long d = grid[down + word];
+            // 第 j 位左移后得到第 j-1 列（左邻），右移得到第 j+1 列（右邻），跨字的一位从相邻字补齐
+            long ul = (u << 1) | (grid[up + previous] >>> 63);
+            long ur = (u >>> 1) | (grid[up + next] << 63);
+            long ml = (m << 1) | (grid[middle + previous] >>> 63);
+            long mr = (m >>> 1) | (grid[middle + next] << 63);
+            long dl = (d << 1) | (grid[down + previous] >>> 63);
+            long dr = (d >>> 1) | (grid[down + next] << 63);
+
+            long s1 = ul ^ u ^ ur;
+            long c1 = (ul & u) | (ur & (ul ^ u));
+            long s2 = ml ^ mr ^ dl;
+            long c2 = (ml & mr) | (dl & (ml ^ mr));
+            long s3 = d ^ dr;
+            long c3 = d & dr;
+            long ones = s1 ^ s2 ^ s3;
+            long c4 = (s1 & s2) | (s3 & (s1 ^ s2));
+            long t = c1 ^ c2 ^ c3;
+            long k1 = (c1 & c2) | (c3 & (c1 ^ c2));
+            long twos = t ^ c4;
+            long k2 = t & c4;
+            long fours = k1 ^ k2;
+            long eights = k1 & k2;
+
+            long noOnes = ~ones;
+            long noTwos = ~twos;
+            long noFours = ~fours;
+            long low = noFours & ~eights;
+            counts[0] = noOnes & noTwos & low;
+            counts[1] = ones & noTwos & low;
+            counts[2] = noOnes & twos & low;
+            counts[3] = ones & twos & low;
+            counts[4] = noOnes & noTwos & fours;
+            counts[5] = ones & noTwos & fours;
+            counts[6] = noOnes & twos & fours;
+            counts[7] = ones & twos & fours;
+            counts[8] = eights;
+            int base = offset + word * planesPerWord;
+            Arrays.fill(planes, base, base + planesPerWord, 0L);
+            for (int k = 0; k <= NEIGHBOURS; k++) {
+                planes[base + cooperatorPlane[k]] |= counts[k] & m;
+                planes[base + defectorPlane[k]] |= counts[k] & ~m;
+            }
+        }
+        // 左右膨胀需要相邻字的边界位，单独一遍完成；每个平面先保存首字，供末字环绕使用
+        int last = offset + (wordsPerRow - 1) * planesPerWord;
+        for (int plane = 0; plane < planesPerWord; plane++) {
+            long first = planes[offset + plane];
+            long carry = planes[last + plane];
+            for (int word = 0; word < wordsPerRow; word++) {
+                int index = offset + word * planesPerWord + plane;
+                long value = planes[index];
+                long next = word == wordsPerRow - 1 ? first : planes[index + planesPerWord];
+                planes[index] = value | (value << 1) | (carry >>> 63) | (value >>> 1) | (next << 63);
+                carry = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.river.experiment.cooperation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * 充分混合的有限族群中的策略演化：个体得分取自预先计算的 {@link PayoffMatrix}，不再重放对局。
+ * <p>
+ * 族群只以各策略人数表示，另维护 {@code T[i] = Σ_j a[i][j]·n[j]}（a 为每轮平均得分）。
+ * 与其余 N - 1 人各对局一场的平均得分为 {@code π[i] = (T[i] - a[i][i]) / (N - 1)}；
+ * 一名个体从策略 k 改为 l 时 T 只需按列差更新，因此单次更新的开销只与策略数有关，与人数无关，
+ * 百万级族群也能逐个体推进。
+ */
+public final class StrategyEvolution {
+
+    private final List<CooperationStrategy> strategies;
+    private final EvolutionParameters parameters;
+    private final long seed;
+    private final int strategyCount;
+    private final double[][] payoff;
+
+    /**
+     * @param matrix 对局结果矩阵，每轮平均得分取其平均单场得分除以轮数
+     */
+    public StrategyEvolution(PayoffMatrix matrix,
+                             List<CooperationStrategy> strategies,
+                             EvolutionParameters parameters,
+                             long seed) {
+        Objects.requireNonNull(matrix, "matrix");
+        this.strategies = List.copyOf(strategies);
+        this.parameters = Objects.requireNonNull(parameters, "parameters");
+        this.seed = seed;
+        this.strategyCount = this.strategies.size();
+        if (strategyCount == 0) {
+            throw new IllegalArgumentException("至少需要 1 种策略参与演化。");
+        }
+        int rounds = matrix.settings().rounds();
+        this.payoff = new double[strategyCount][strategyCount];
+        double minPayoff = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < strategyCount; i++) {
+            for (int j = 0; j < strategyCount; j++) {
+                payoff[i][j] = matrix.meanScore(this.strategies.get(i), this.strategies.get(j)) / rounds;
+                minPayoff = Math.min(minPayoff, payoff[i][j]);
+            }
+        }
+        if (parameters.dynamics() == EvolutionaryDynamics.MORAN
+                && 1 + parameters.selectionIntensity() * minPayoff <= 0) {
+            throw new IllegalArgumentException("选择强度过大，莫兰过程的适合度 1 + w·π 会出现非正值。");
+        }
+    }
+
+    public EvolutionResult run() {
+        int populationSize = parameters.populationSize();
+        int generations = parameters.generations();
+        double selection = parameters.selectionIntensity();
+        double mutationRate = parameters.mutationRate();
+        boolean moran = parameters.dynamics() == EvolutionaryDynamics.MORAN;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        int[] counts = new int[strategyCount];
+        for (int i = 0; i < strategyCount; i++) {
+            counts[i] = populationSize / strategyCount + (i < populationSize % strategyCount ? 1 : 0);
+        }
+        double[] totals = new double[strategyCount];
+        for (int i = 0; i < strategyCount; i++) {
+            for (int j = 0; j < strategyCount; j++) {
+                totals[i] += payoff[i][j] * counts[j];
+            }
+        }
+        double[] fitness = new double[strategyCount];
+        double opponents = populationSize - 1;
+
+        double[][] shares = new double[strategyCount][generations + 1];
+        recordShares(counts, shares, 0);
+        int recorded = 1;
+        for (int generation = 1; generation <= generations; generation++) {
+            for (int update = 0; update < populationSize; update++) {
+                int from;
+                int to;
+                if (moran) {
+                    double totalFitness = 0.0;
+                    for (int i = 0; i < strategyCount; i++) {
+                        fitness[i] = counts[i] * (1 + selection * (totals[i] - payoff[i][i]) / opponents);
+                        totalFitness += fitness[i];
+                    }
+                    to = pick(fitness, random.nextDouble() * totalFitness);
+                    from = pickByCount(counts, random.nextInt(populationSize));
+                } else {
+                    from = pickByCount(counts, random.nextInt(populationSize));
+                    // 模仿对象从除自身外的 N - 1 人中均匀选取
+                    int model = random.nextInt(populationSize - 1);
+                    to = pickByCountExcluding(counts, model, from);
+                    double difference = ((totals[to] - payoff[to][to]) - (totals[from] - payoff[from][from])) / opponents;
+                    if (to != from && random.nextDouble() >= 1.0 / (1.0 + Math.exp(-selection * difference))) {
+                        to = from;
+                    }
+                }
+                if (mutationRate > 0 && random.nextDouble() < mutationRate) {
+                    to = random.nextInt(strategyCount);
+                }
+                if (to != from) {
+                    counts[from]--;
+                    counts[to]++;
+                    for (int i = 0; i < strategyCount; i++) {
+                        totals[i] += payoff[i][to] - payoff[i][from];
+                    }
+                }
+            }
+            recordShares(counts, shares, generation);
+            recorded++;
+            if (mutationRate == 0 && isMonomorphic(counts, populationSize)) {
+                // 无突变时单一策略占满族群即为吸收态，之后的占比不再变化
+                for (int rest = generation + 1; rest <= generations; rest++) {
+                    recordShares(counts, shares, rest);
+                }
+                recorded = generations + 1;
+                break;
+            }
+        }
+        return new EvolutionResult(parameters, strategies, shares, recorded);
+    }
+
+    private void recordShares(int[] counts, double[][] shares, int generation) {
+        double populationSize = parameters.populationSize();
+        for (int i = 0; i < strategyCount; i++) {
+            shares[i][generation] = counts[i] / populationSize;
+        }
+    }
+
+    private static int pick(double[] weights, double target) {
+        int last = weights.length - 1;
+        for (int i = 0; i < last; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return last;
+    }
+
+    private static int pickByCount(int[] counts, int position) {
+        int last = counts.length - 1;
+        for (int i = 0; i < last; i++) {
+            position -= counts[i];
+            if (position < 0) {
+                return i;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * 在去掉一名 {@code excluded} 策略个体后的族群中按位置取策略。
+     */
+    private static int pickByCountExcluding(int[] counts, int position, int excluded) {
+        int last = counts.length - 1;
+        for (int i = 0; i < last; i++) {
+            position -= i == excluded ? counts[i] - 1 : counts[i];
+            if (position < 0) {
+                return i;
+            }
+        }
+        return last;
+    }
+
+    private static boolean isMonomorphic(int[] counts, int populationSize) {
+        for (int count : counts) {
+            if (count == populationSize) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
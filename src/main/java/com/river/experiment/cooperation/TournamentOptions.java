@@ -0,0 +1,130 @@
+package com.river.experiment.cooperation;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.river.experiment.core.ExecutionMode;
+
+/**
+ * 锦标赛运行选项，与对局规则无关，只影响执行方式与保留哪些结果。
+ *
+ * @param recordMatchOutcomes 是否为每场对局保留 {@link MatchOutcome}；大规模锦标赛关闭后，
+ *                            稳态对局循环不再分配对象，排名与策略汇总不受影响
+ * @param matchEngine         单场对局的结算方式
+ * @param matrixSamplesPerPair {@link MatchEngine#SAMPLED_MATRIX} 下每个策略对预先模拟的对局数
+ * @param execution           执行方式；{@link ExecutionMode#DETERMINISTIC_PARALLEL} 下洗牌仍用共享随机数，
+ *                            每场对局的随机流由 (种子, 轮次, 配对序号) 派生
+ * @param parallelism         {@link ExecutionMode#DETERMINISTIC_PARALLEL} 下使用的线程数，不影响结果
+ * @param outcomeSpillFile    非空时逐场结果写入该文件的内存映射页，而不是堆内存
+ * @param noiseSampling       逐轮蒙特卡洛对局中动作噪声的抽样方式
+ */
+public record TournamentOptions(boolean recordMatchOutcomes,
+                                MatchEngine matchEngine,
+                                int matrixSamplesPerPair,
+                                ExecutionMode execution,
+                                int parallelism,
+                                Path outcomeSpillFile,
+                                NoiseSampling noiseSampling) {
+
+    public TournamentOptions {
+        Objects.requireNonNull(matchEngine, "matchEngine");
+        Objects.requireNonNull(execution, "execution");
+        Objects.requireNonNull(noiseSampling, "noiseSampling");
+        if (matrixSamplesPerPair <= 0) {
+            throw new IllegalArgumentException("每个策略对的样本数必须为正数。");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+    }
+
+    /**
+     * 默认选项：逐轮蒙特卡洛 + 单线程 + 在堆内保留逐场结果，与历史版本的结果逐位一致。
+     */
+    public static TournamentOptions defaults() {
+        return new TournamentOptions(
+                true,
+                MatchEngine.MONTE_CARLO,
+                256,
+                ExecutionMode.SEQUENTIAL,
+                1,
+                null,
+                NoiseSampling.LEGACY_PER_ACTION
+        );
+    }
+
+    public TournamentOptions withRecordMatchOutcomes(boolean recordMatchOutcomes) {
+        return new TournamentOptions(
+                recordMatchOutcomes,
+                matchEngine,
+                matrixSamplesPerPair,
+                execution,
+                parallelism,
+                outcomeSpillFile,
+                noiseSampling
+        );
+    }
+
+    public TournamentOptions withMatchEngine(MatchEngine matchEngine) {
+        return new TournamentOptions(
+                recordMatchOutcomes,
+                matchEngine,
+                matrixSamplesPerPair,
+                execution,
+                parallelism,
+                outcomeSpillFile,
+                noiseSampling
+        );
+    }
+
+    public TournamentOptions withMatrixSamplesPerPair(int matrixSamplesPerPair) {
+        return new TournamentOptions(
+                recordMatchOutcomes,
+                matchEngine,
+                matrixSamplesPerPair,
+                execution,
+                parallelism,
+                outcomeSpillFile,
+                noiseSampling
+        );
+    }
+
+    /**
+     * 切换为确定性并行执行，并指定线程数。
+     */
+    public TournamentOptions withDeterministicParallelism(int parallelism) {
+        return new TournamentOptions(
+                recordMatchOutcomes,
+                matchEngine,
+                matrixSamplesPerPair,
+                ExecutionMode.DETERMINISTIC_PARALLEL,
+                parallelism,
+                outcomeSpillFile,
+                noiseSampling
+        );
+    }
+
+    public TournamentOptions withOutcomeSpillFile(Path outcomeSpillFile) {
+        return new TournamentOptions(
+                recordMatchOutcomes,
+                matchEngine,
+                matrixSamplesPerPair,
+                execution,
+                parallelism,
+                outcomeSpillFile,
+                noiseSampling
+        );
+    }
+
+    public TournamentOptions withNoiseSampling(NoiseSampling noiseSampling) {
+        return new TournamentOptions(
+                recordMatchOutcomes,
+                matchEngine,
+                matrixSamplesPerPair,
+                execution,
+                parallelism,
+                outcomeSpillFile,
+                noiseSampling
+        );
+    }
+}
@@ -4,20 +4,26 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * 锦标赛结果，包含角色排名、策略汇总以及原始对局数据。
+ * 锦标赛结果，包含角色排名、策略汇总以及以列式存储保存的原始对局数据。
  */
 public final class TournamentResult {
 
     private final List<AgentPerformance> agentPerformances;
     private final List<StrategyPerformance> strategyPerformances;
-    private final List<MatchOutcome> matchOutcomes;
+    private final MatchOutcomeStore matchOutcomes;
 
     public TournamentResult(List<AgentPerformance> agentPerformances,
                             List<StrategyPerformance> strategyPerformances,
                             List<MatchOutcome> matchOutcomes) {
+        this(agentPerformances, strategyPerformances, MatchOutcomeStore.of(matchOutcomes));
+    }
+
+    public TournamentResult(List<AgentPerformance> agentPerformances,
+                            List<StrategyPerformance> strategyPerformances,
+                            MatchOutcomeStore matchOutcomes) {
         this.agentPerformances = List.copyOf(agentPerformances);
         this.strategyPerformances = List.copyOf(strategyPerformances);
-        this.matchOutcomes = List.copyOf(matchOutcomes);
+        this.matchOutcomes = matchOutcomes;
     }
 
     public List<AgentPerformance> agentPerformances() {
@@ -28,8 +34,15 @@ public final class TournamentResult {
         return Collections.unmodifiableList(strategyPerformances);
     }
 
+    /**
+     * 逐场对局结果的只读视图，访问元素时才从列式存储物化对象。
+     */
     public List<MatchOutcome> matchOutcomes() {
-        return Collections.unmodifiableList(matchOutcomes);
+        return matchOutcomes.asList();
+    }
+
+    public MatchOutcomeStore matchOutcomeStore() {
+        return matchOutcomes;
     }
 
     public AgentPerformance topAgent() {
@@ -0,0 +1,41 @@
+package com.river.experiment.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * 把 {@code [0, count)} 中的每个分块序号二分派发到 ForkJoinPool 上执行。
+ * 分块的划分只取决于调用方，与线程数无关。
+ */
+public final class ChunkAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final IntConsumer body;
+
+    private ChunkAction(int from, int to, IntConsumer body) {
+        this.from = from;
+        this.to = to;
+        this.body = body;
+    }
+
+    public static void forEach(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count == 0) {
+            return;
+        }
+        pool.invoke(new ChunkAction(0, count, body));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from == 1) {
+            body.accept(from);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new ChunkAction(from, mid, body), new ChunkAction(mid, to, body));
+    }
+}
@@ -0,0 +1,19 @@
+package com.river.experiment.core;
+
+/**
+ * 模拟计算的执行方式，由各实验的引擎选项选择。
+ */
+public enum ExecutionMode {
+
+    /**
+     * 单线程，全程共用一个以种子初始化的 {@link java.util.Random}，与历史版本一致。
+     */
+    SEQUENTIAL,
+
+    /**
+     * 按固定大小切分工作单元（家庭、对局配对等），通过 {@link ChunkAction} 在 ForkJoinPool 上并行处理；
+     * 每个单元使用由 {@link RandomStreams} 按 (种子, 步序号, 单元序号) 派生的独立随机流，统计按序号合并，
+     * 因此结果与线程数无关、逐位可复现（但与 {@link #SEQUENTIAL} 的随机序列不同）。
+     */
+    DETERMINISTIC_PARALLEL
+}
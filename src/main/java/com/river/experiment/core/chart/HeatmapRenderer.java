@@ -0,0 +1,104 @@
+package com.river.experiment.core.chart;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.knowm.xchart.BitmapEncoder;
+import org.knowm.xchart.BitmapEncoder.BitmapFormat;
+import org.knowm.xchart.HeatMapChart;
+import org.knowm.xchart.HeatMapChartBuilder;
+import org.knowm.xchart.style.Styler;
+
+/**
+ * 基于 XChart 的热力图渲染器，用于参数扫描等二维网格结果。
+ */
+public final class HeatmapRenderer {
+
+    private static final int DEFAULT_WIDTH = 960;
+    private static final int DEFAULT_HEIGHT = 720;
+
+    private HeatmapRenderer() {
+    }
+
+    /**
+     * 渲染一张热力图，{@code values[y][x]} 对应横轴第 x 个、纵轴第 y 个取值，颜色区间固定为 {@code [min, max]}。
+     */
+    public static Path render(Path filePath,
+                              String title,
+                              String xAxisLabel,
+                              String yAxisLabel,
+                              double[] xValues,
+                              double[] yValues,
+                              double[][] values,
+                              double min,
+                              double max) throws IOException {
+        Objects.requireNonNull(filePath, "filePath");
+        if (values.length != yValues.length) {
+            throw new IllegalArgumentException("热力图行数必须与纵轴取值数量一致。");
+        }
+        List<Number[]> cells = new ArrayList<>(xValues.length * yValues.length);
+        for (int y = 0; y < yValues.length; y++) {
+            if (values[y].length != xValues.length) {
+                throw new IllegalArgumentException("热力图列数必须与横轴取值数量一致。");
+            }
+            for (int x = 0; x < xValues.length; x++) {
+                cells.add(new Number[]{x, y, values[y][x]});
+            }
+        }
+
+        HeatMapChart chart = new HeatMapChartBuilder()
+                .width(DEFAULT_WIDTH)
+                .height(DEFAULT_HEIGHT)
+                .title(title)
+                .xAxisTitle(xAxisLabel)
+                .yAxisTitle(yAxisLabel)
+                .build();
+        styleChart(chart, min, max);
+        chart.addSeries(title, axisLabels(xValues), axisLabels(yValues), cells);
+
+        Path parent = filePath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        String path = filePath.toString();
+        String bitmapBasePath = path.endsWith(".png") ? path.substring(0, path.length() - 4) : path;
+        BitmapEncoder.saveBitmap(chart, bitmapBasePath, BitmapFormat.PNG);
+        return Path.of(bitmapBasePath + ".png");
+    }
+
+    private static List<String> axisLabels(double[] values) {
+        DecimalFormat format = new DecimalFormat("0.###");
+        List<String> labels = new ArrayList<>(values.length);
+        for (double value : values) {
+            labels.add(format.format(value));
+        }
+        return labels;
+    }
+
+    private static void styleChart(HeatMapChart chart, double min, double max) {
+        chart.getStyler().setBaseFont(ChartFontProvider.baseFont());
+        chart.getStyler().setChartTitleFont(ChartFontProvider.titleFont());
+        chart.getStyler().setAxisTitleFont(ChartFontProvider.axisTitleFont());
+        chart.getStyler().setAxisTickLabelsFont(ChartFontProvider.axisLabelFont());
+        chart.getStyler().setLegendFont(ChartFontProvider.legendFont());
+
+        chart.getStyler().setChartBackgroundColor(Color.WHITE);
+        chart.getStyler().setLegendPosition(Styler.LegendPosition.OutsideE);
+        chart.getStyler().setPlotContentSize(1.0);
+        chart.getStyler().setXAxisLabelRotation(90);
+        chart.getStyler().setShowValue(false);
+        chart.getStyler().setMin(min);
+        chart.getStyler().setMax(max);
+        chart.getStyler().setRangeColors(new Color[]{
+                new Color(219, 68, 55),
+                new Color(248, 249, 252),
+                new Color(66, 133, 244)
+        });
+    }
+}
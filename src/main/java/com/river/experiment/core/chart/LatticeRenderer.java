@@ -0,0 +1,100 @@
+package com.river.experiment.core.chart;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 把按位压缩的二态格子（每行 {@code width / 64} 个 long，第 x 列位于第 {@code x >>> 6} 个字的第 {@code x & 63} 位）
+ * 渲染为 PNG 快照。
+ * <p>
+ * 颜色同时反映上一步与当前状态：保持 1 为蓝、保持 0 为红、0 变 1 为绿、1 变 0 为黄。
+ * 格子边长超过 {@code maxSide} 时按整数倍缩小，每个像素取所覆盖格点颜色的平均值。
+ */
+public final class LatticeRenderer {
+
+    private static final Color STAY_ONE = new Color(66, 133, 244);
+    private static final Color STAY_ZERO = new Color(219, 68, 55);
+    private static final Color BECOME_ONE = new Color(15, 157, 88);
+    private static final Color BECOME_ZERO = new Color(244, 180, 0);
+    private static final Color[] PALETTE = {STAY_ZERO, BECOME_ONE, BECOME_ZERO, STAY_ONE};
+
+    private LatticeRenderer() {
+    }
+
+    /**
+     * @param previous 上一步的格子，没有上一步时传入 {@code current}
+     */
+    public static Path render(Path filePath,
+                              int width,
+                              int height,
+                              long[] current,
+                              long[] previous,
+                              int maxSide) throws IOException {
+        Objects.requireNonNull(filePath, "filePath");
+        if (width <= 0 || width % Long.SIZE != 0 || height <= 0) {
+            throw new IllegalArgumentException("格子宽度必须是 64 的正整数倍，高度必须为正数。");
+        }
+        int wordsPerRow = width / Long.SIZE;
+        if (current.length < wordsPerRow * height || previous.length < wordsPerRow * height) {
+            throw new IllegalArgumentException("格子数据长度与宽高不符。");
+        }
+        if (maxSide <= 0) {
+            throw new IllegalArgumentException("快照边长必须为正数。");
+        }
+        int scale = (Math.max(width, height) + maxSide - 1) / maxSide;
+        int imageWidth = (width + scale - 1) / scale;
+        int imageHeight = (height + scale - 1) / scale;
+
+        // 每个像素按四种颜色分别计数，逐行累加后再求平均色
+        int[] counts = new int[imageWidth * PALETTE.length];
+        BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        for (int pixelRow = 0; pixelRow < imageHeight; pixelRow++) {
+            Arrays.fill(counts, 0);
+            int rowEnd = Math.min(height, (pixelRow + 1) * scale);
+            for (int y = pixelRow * scale; y < rowEnd; y++) {
+                int offset = y * wordsPerRow;
+                for (int word = 0; word < wordsPerRow; word++) {
+                    long now = current[offset + word];
+                    long before = previous[offset + word];
+                    int base = word * Long.SIZE;
+                    for (int bit = 0; bit < Long.SIZE; bit++) {
+                        int colour = (int) ((now >>> bit & 1L) | (before >>> bit & 1L) << 1);
+                        counts[(base + bit) / scale * PALETTE.length + colour]++;
+                    }
+                }
+            }
+            for (int x = 0; x < imageWidth; x++) {
+                image.setRGB(x, pixelRow, blend(counts, x * PALETTE.length));
+            }
+        }
+
+        Path parent = filePath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ImageIO.write(image, "png", filePath.toFile());
+        return filePath;
+    }
+
+    private static int blend(int[] counts, int offset) {
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        long total = 0;
+        for (int colour = 0; colour < PALETTE.length; colour++) {
+            int count = counts[offset + colour];
+            red += (long) count * PALETTE[colour].getRed();
+            green += (long) count * PALETTE[colour].getGreen();
+            blue += (long) count * PALETTE[colour].getBlue();
+            total += count;
+        }
+        return (int) (red / total) << 16 | (int) (green / total) << 8 | (int) (blue / total);
+    }
+}
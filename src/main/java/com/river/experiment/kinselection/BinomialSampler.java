@@ -0,0 +1,144 @@
+package com.river.experiment.kinselection;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 二项分布与多项分布抽样。均值较小时用逆变换逐项累加，较大时用 Hörmann 的 BTRS
+ * （带挤压的变换拒绝法），单次抽样的期望开销与试验次数无关。
+ */
+final class BinomialSampler {
+
+    private static final double INVERSION_MEAN_LIMIT = 10.0;
+    private static final double HALF_LOG_TWO_PI = 0.5 * Math.log(2 * Math.PI);
+    private static final double[] SMALL_LOG_FACTORIALS = new double[16];
+
+    static {
+        for (int k = 1; k < SMALL_LOG_FACTORIALS.length; k++) {
+            SMALL_LOG_FACTORIALS[k] = SMALL_LOG_FACTORIALS[k - 1] + Math.log(k);
+        }
+    }
+
+    private BinomialSampler() {
+    }
+
+    static long binomial(RandomGenerator random, long trials, double probability) {
+        if (trials <= 0 || probability <= 0.0) {
+            return 0;
+        }
+        if (probability >= 1.0) {
+            return trials;
+        }
+        if (probability > 0.5) {
+            return trials - binomial(random, trials, 1.0 - probability);
+        }
+        if (trials * probability < INVERSION_MEAN_LIMIT) {
+            return inversion(random, trials, probability);
+        }
+        return transformedRejection(random, trials, probability);
+    }
+
+    /**
+     * 按概率向量把 {@code trials} 次试验分配到各个类别，结果累加进 {@code counts}。
+     * 依次对剩余试验做条件二项抽样，总开销与类别数成正比。
+     */
+    static void multinomial(RandomGenerator random, long trials, double[] probabilities, long[] counts) {
+        long remaining = trials;
+        double remainingProbability = 1.0;
+        for (int i = 0; i < probabilities.length && remaining > 0; i++) {
+            long drawn;
+            if (i == probabilities.length - 1 || probabilities[i] >= remainingProbability) {
+                drawn = remaining;
+            } else {
+                drawn = binomial(random, remaining, probabilities[i] / remainingProbability);
+            }
+            counts[i] += drawn;
+            remaining -= drawn;
+            remainingProbability -= probabilities[i];
+        }
+    }
+
+    /**
+     * 二项分布概率质量函数 {@code P(X = k), k = 0..trials}，在对数空间计算以避免下溢。
+     */
+    static double[] probabilityMass(int trials, double probability) {
+        double[] mass = new double[trials + 1];
+        if (probability <= 0.0) {
+            mass[0] = 1.0;
+            return mass;
+        }
+        if (probability >= 1.0) {
+            mass[trials] = 1.0;
+            return mass;
+        }
+        double logP = Math.log(probability);
+        double logQ = Math.log1p(-probability);
+        for (int k = 0; k <= trials; k++) {
+            mass[k] = Math.exp(logFactorial(trials) - logFactorial(k) - logFactorial(trials - k)
+                    + k * logP + (trials - k) * logQ);
+        }
+        return mass;
+    }
+
+    static double logFactorial(long k) {
+        if (k < SMALL_LOG_FACTORIALS.length) {
+            return SMALL_LOG_FACTORIALS[(int) k];
+        }
+        double x = k;
+        double inverse = 1.0 / x;
+        double inverseSquared = inverse * inverse;
+        return (x + 0.5) * Math.log(x) - x + HALF_LOG_TWO_PI
+                + inverse * (1.0 / 12 - inverseSquared * (1.0 / 360 - inverseSquared / 1260));
+    }
+
+    private static long inversion(RandomGenerator random, long trials, double probability) {
+        double q = 1.0 - probability;
+        double ratio = probability / q;
+        double scaled = (trials + 1) * ratio;
+        double start = Math.exp(trials * Math.log1p(-probability));
+        while (true) {
+            double mass = start;
+            double u = random.nextDouble();
+            long x = 0;
+            while (u > mass) {
+                u -= mass;
+                x++;
+                if (x > trials) {
+                    break;
+                }
+                mass *= scaled / x - ratio;
+            }
+            if (x <= trials) {
+                return x;
+            }
+        }
+    }
+
+    private static long transformedRejection(RandomGenerator random, long trials, double probability) {
+        double q = 1.0 - probability;
+        double spq = Math.sqrt(trials * probability * q);
+        double b = 1.15 + 2.53 * spq;
+        double a = -0.0873 + 0.0248 * b + 0.01 * probability;
+        double c = trials * probability + 0.5;
+        double vr = 0.92 - 4.2 / b;
+        double alpha = (2.83 + 5.1 / b) * spq;
+        double logOdds = Math.log(probability / q);
+        long mode = (long) Math.floor((trials + 1) * probability);
+        double h = logFactorial(mode) + logFactorial(trials - mode);
+        while (true) {
+            double u = random.nextDouble() - 0.5;
+            double v = random.nextDouble();
+            double us = 0.5 - Math.abs(u);
+            long k = (long) Math.floor((2 * a / us + b) * u + c);
+            if (k < 0 || k > trials) {
+                continue;
+            }
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            double logV = Math.log(v * alpha / (a / (us * us) + b));
+            if (logV <= h - logFactorial(k) - logFactorial(trials - k) + (k - mode) * logOdds) {
+                return k;
+            }
+        }
+    }
+}
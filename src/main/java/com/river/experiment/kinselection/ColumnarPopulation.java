@@ -0,0 +1,342 @@
+package com.river.experiment.kinselection;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * 列式族群：第 {@code i} 个个体的策略与适合度分别存放在各列数组的第 {@code i} 位，
+ * 家庭编号为 {@code i / familySize}。繁殖时写入备用策略数组后交换，整代不分配个体对象。
+ * <p>
+ * 各步骤都以家庭区间 {@code [fromFamily, toFamily)} 为单位，顺序模式处理全部家庭，
+ * 并行模式由 {@link ParallelGenerationKernel} 把互不重叠的区间分给不同线程。
+ * 融合模式只走 {@link #fusedSweep}，不需要逐个体的适合度列，构造时可省去这四列。
+ */
+final class ColumnarPopulation {
+
+    private static final Strategy[] STRATEGIES = Strategy.values();
+    static final byte ALTRUIST = (byte) Strategy.ALTRUIST.ordinal();
+    static final byte SELFISH = (byte) Strategy.SELFISH.ordinal();
+
+    private final int size;
+    private final int familySize;
+
+    private byte[] strategies;
+    private byte[] nextStrategies;
+    private final double[] directFitness;
+    private final double[] inclusiveFitness;
+    private final double[] benefitGiven;
+    private final double[] benefitReceived;
+
+    ColumnarPopulation(int size, int familySize, boolean withFitnessColumns) {
+        this.size = size;
+        this.familySize = familySize;
+        this.strategies = new byte[size];
+        this.nextStrategies = new byte[size];
+        int fitnessLength = withFitnessColumns ? size : 0;
+        this.directFitness = new double[fitnessLength];
+        this.inclusiveFitness = new double[fitnessLength];
+        this.benefitGiven = new double[fitnessLength];
+        this.benefitReceived = new double[fitnessLength];
+    }
+
+    /**
+     * 按初始利他者占比随机生成族群，随机数消耗顺序与对象存储保持一致。
+     */
+    static ColumnarPopulation initialize(SimulationParameters parameters,
+                                         RandomGenerator random,
+                                         boolean withFitnessColumns) {
+        ColumnarPopulation population = new ColumnarPopulation(
+                parameters.populationSize(),
+                parameters.familySize(),
+                withFitnessColumns
+        );
+        population.randomize(0, population.familyCount(), parameters.initialAltruistShare(), random);
+        return population;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int familySize() {
+        return familySize;
+    }
+
+    int familyCount() {
+        return size / familySize;
+    }
+
+    byte strategyAt(int index) {
+        return strategies[index];
+    }
+
+    void setStrategy(int index, byte strategy) {
+        strategies[index] = strategy;
+    }
+
+    void loadStrategies(byte[] source) {
+        System.arraycopy(source, 0, strategies, 0, size);
+    }
+
+    byte[] copyStrategies() {
+        return strategies.clone();
+    }
+
+    void randomize(int fromFamily, int toFamily, double altruistShare, RandomGenerator random) {
+        int end = toFamily * familySize;
+        for (int i = fromFamily * familySize; i < end; i++) {
+            strategies[i] = random.nextDouble() < altruistShare ? ALTRUIST : SELFISH;
+        }
+    }
+
+    void resetForGeneration(double baseFitness) {
+        resetFamilies(0, familyCount(), baseFitness);
+    }
+
+    void resetFamilies(int fromFamily, int toFamily, double baseFitness) {
+        int from = fromFamily * familySize;
+        int to = toFamily * familySize;
+        Arrays.fill(directFitness, from, to, baseFitness);
+        Arrays.fill(inclusiveFitness, from, to, baseFitness);
+        Arrays.fill(benefitGiven, from, to, 0.0);
+        Arrays.fill(benefitReceived, from, to, 0.0);
+    }
+
+    void playKinInteractions(double benefit, double cost) {
+        playKinInteractions(0, familyCount(), benefit, cost);
+    }
+
+    void playKinInteractions(int fromFamily, int toFamily, double benefit, double cost) {
+        double sharePerRelative = benefit / (familySize - 1);
+        int last = toFamily * familySize;
+        for (int start = fromFamily * familySize; start < last; start += familySize) {
+            int end = start + familySize;
+            for (int i = start; i < end; i++) {
+                if (strategies[i] != ALTRUIST) {
+                    continue;
+                }
+                directFitness[i] -= cost;
+                benefitGiven[i] += benefit;
+                for (int j = start; j < end; j++) {
+                    if (j != i) {
+                        benefitReceived[j] += sharePerRelative;
+                    }
+                }
+            }
+        }
+    }
+
+    void playFamilyCountInteractions(double benefit, double cost) {
+        playFamilyCountInteractions(0, familyCount(), benefit, cost);
+    }
+
+    void playFamilyCountInteractions(int fromFamily, int toFamily, double benefit, double cost) {
+        double sharePerRelative = benefit / (familySize - 1);
+        int last = toFamily * familySize;
+        for (int start = fromFamily * familySize; start < last; start += familySize) {
+            int end = start + familySize;
+            int altruists = 0;
+            for (int i = start; i < end; i++) {
+                if (strategies[i] == ALTRUIST) {
+                    altruists++;
+                }
+            }
+            if (altruists == 0) {
+                continue;
+            }
+            double receivedBySelfish = altruists * sharePerRelative;
+            double receivedByAltruist = (altruists - 1) * sharePerRelative;
+            for (int i = start; i < end; i++) {
+                if (strategies[i] == ALTRUIST) {
+                    directFitness[i] -= cost;
+                    benefitGiven[i] += benefit;
+                    benefitReceived[i] += receivedByAltruist;
+                } else {
+                    benefitReceived[i] += receivedBySelfish;
+                }
+            }
+        }
+    }
+
+    void finalizeFitness(double relatedness, StrategyTotals totals) {
+        finalizeFitness(0, familyCount(), relatedness, totals);
+    }
+
+    void finalizeFitness(int fromFamily, int toFamily, double relatedness, StrategyTotals totals) {
+        int end = toFamily * familySize;
+        for (int i = fromFamily * familySize; i < end; i++) {
+            directFitness[i] += benefitReceived[i];
+            inclusiveFitness[i] = directFitness[i] + relatedness * benefitGiven[i];
+            totals.add(strategies[i], directFitness[i], inclusiveFitness[i], benefitGiven[i], benefitReceived[i]);
+        }
+    }
+
+    /**
+     * 谱系模式的结算：利他者的包容部分按其与每位家人的实际相关系数加权，而非统一乘以常数。
+     */
+    void finalizeFitness(PedigreeRelatedness pedigree, double benefit, StrategyTotals totals) {
+        double sharePerRelative = benefit / (familySize - 1);
+        for (int i = 0; i < size; i++) {
+            directFitness[i] += benefitReceived[i];
+            inclusiveFitness[i] = strategies[i] == ALTRUIST
+                    ? directFitness[i] + sharePerRelative * pedigree.kinshipSum(i / familySize, i % familySize)
+                    : directFitness[i];
+            totals.add(strategies[i], directFitness[i], inclusiveFitness[i], benefitGiven[i], benefitReceived[i]);
+        }
+    }
+
+    /**
+     * 谱系模式的繁殖：按权重抽一名亲本确定亲代家庭，户内每个孩子再按权重从该户中各自挑选亲本，
+     * 并把亲本位置交给 {@link PedigreeRelatedness} 递推下一代的相关系数。
+     */
+    void reproduce(ParentSampler sampler,
+                   RandomGenerator random,
+                   double mutationRate,
+                   PedigreeRelatedness pedigree) {
+        sampler.prepare(inclusiveFitness, size, familyCount(), random);
+        double[] householdWeights = new double[familySize];
+        int[] parents = new int[familySize];
+        for (int family = 0; family < familyCount(); family++) {
+            int household = sampler.next(random) / familySize;
+            int householdStart = household * familySize;
+            double total = 0.0;
+            for (int member = 0; member < familySize; member++) {
+                total += ParentSampler.reproductiveWeight(inclusiveFitness[householdStart + member]);
+                householdWeights[member] = total;
+            }
+            int start = family * familySize;
+            for (int child = 0; child < familySize; child++) {
+                double target = random.nextDouble() * total;
+                int parent = 0;
+                while (parent < familySize - 1 && householdWeights[parent] <= target) {
+                    parent++;
+                }
+                parents[child] = parent;
+                nextStrategies[start + child] = maybeMutate(random, strategies[householdStart + parent], mutationRate);
+            }
+            pedigree.inherit(family, household, parents);
+        }
+        swapGenerations();
+        pedigree.swapGenerations();
+    }
+
+    void reproduce(ParentSampler sampler, RandomGenerator random, double mutationRate) {
+        sampler.prepare(inclusiveFitness, size, familyCount(), random);
+        for (int start = 0; start < size; start += familySize) {
+            byte parentStrategy = strategies[sampler.next(random)];
+            for (int i = start; i < start + familySize; i++) {
+                nextStrategies[i] = maybeMutate(random, parentStrategy, mutationRate);
+            }
+        }
+        swapGenerations();
+    }
+
+    /**
+     * 融合内核：对每个家庭一次性完成“数利他者 → 闭式结算适合度 → 累加策略统计 → 写繁殖权重前缀和”，
+     * 不读写逐个体的适合度列，只读一遍策略、写一遍前缀和。互动按 {@link InteractionKernel#FAMILY_COUNT} 计算。
+     *
+     * @return 区间权重总和（前缀和从区间起点的 0 开始累计）
+     */
+    double fusedSweep(int fromFamily,
+                      int toFamily,
+                      SimulationParameters parameters,
+                      StrategyTotals totals,
+                      double[] cumulative) {
+        double benefit = parameters.benefit();
+        double sharePerRelative = benefit / (familySize - 1);
+        double altruistBase = parameters.baseFitness() - parameters.cost();
+        double relatedBenefit = parameters.relatednessWithinFamily() * benefit;
+        double running = 0.0;
+        int last = toFamily * familySize;
+        for (int start = fromFamily * familySize; start < last; start += familySize) {
+            int end = start + familySize;
+            int altruists = 0;
+            for (int i = start; i < end; i++) {
+                altruists += strategies[i] == ALTRUIST ? 1 : 0;
+            }
+            double altruistReceived = (altruists - 1) * sharePerRelative;
+            double altruistDirect = altruistBase + altruistReceived;
+            double altruistInclusive = altruistDirect + relatedBenefit;
+            double selfishReceived = altruists * sharePerRelative;
+            double selfishDirect = parameters.baseFitness() + selfishReceived;
+
+            double altruistWeight = ParentSampler.reproductiveWeight(altruistInclusive);
+            double selfishWeight = ParentSampler.reproductiveWeight(selfishDirect);
+            for (int i = start; i < end; i++) {
+                running += strategies[i] == ALTRUIST ? altruistWeight : selfishWeight;
+                cumulative[i] = running;
+            }
+
+            totals.addMembers(ALTRUIST, altruists, altruistDirect, altruistInclusive, benefit, altruistReceived);
+            totals.addMembers(SELFISH, familySize - altruists, selfishDirect, selfishDirect, 0.0, selfishReceived);
+        }
+        return running;
+    }
+
+    /**
+     * 把区间内的繁殖权重写成区间内部的前缀和，返回区间权重总和。
+     */
+    double accumulateWeights(int fromFamily, int toFamily, double[] cumulative) {
+        double running = 0.0;
+        int end = toFamily * familySize;
+        for (int i = fromFamily * familySize; i < end; i++) {
+            running += ParentSampler.reproductiveWeight(inclusiveFitness[i]);
+            cumulative[i] = running;
+        }
+        return running;
+    }
+
+    void offsetWeights(int fromFamily, int toFamily, double[] cumulative, double offset) {
+        if (offset == 0.0) {
+            return;
+        }
+        int end = toFamily * familySize;
+        for (int i = fromFamily * familySize; i < end; i++) {
+            cumulative[i] += offset;
+        }
+    }
+
+    /**
+     * 为区间内每个家庭抽取亲本并写入子代策略，抽样器须已由
+     * {@link ParentSampler#prepareFromCumulative} 准备好。
+     */
+    void breedFamilies(int fromFamily,
+                       int toFamily,
+                       ParentSampler sampler,
+                       RandomGenerator random,
+                       double mutationRate) {
+        for (int family = fromFamily; family < toFamily; family++) {
+            byte parentStrategy = strategies[sampler.draw(family, random)];
+            int start = family * familySize;
+            for (int i = start; i < start + familySize; i++) {
+                nextStrategies[i] = maybeMutate(random, parentStrategy, mutationRate);
+            }
+        }
+    }
+
+    /**
+     * 统计当前策略下“含 k 名利他者的家庭数”，结果累加进 {@code familyHistogram}。
+     */
+    void countFamilies(long[] familyHistogram) {
+        for (int start = 0; start < size; start += familySize) {
+            int altruists = 0;
+            for (int i = start; i < start + familySize; i++) {
+                altruists += strategies[i] == ALTRUIST ? 1 : 0;
+            }
+            familyHistogram[altruists]++;
+        }
+    }
+
+    void swapGenerations() {
+        byte[] previous = strategies;
+        strategies = nextStrategies;
+        nextStrategies = previous;
+    }
+
+    private static byte maybeMutate(RandomGenerator random, byte strategy, double mutationRate) {
+        if (random.nextDouble() < mutationRate) {
+            return (byte) random.nextInt(STRATEGIES.length);
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,62 @@
+package com.river.experiment.kinselection;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 把每代统计逐行写入 CSV 的监听器，长时间运行时内存占用恒定。
+ */
+public final class CsvGenerationSink implements GenerationListener, Closeable {
+
+    private static final Strategy[] STRATEGIES = Strategy.values();
+
+    private final BufferedWriter writer;
+
+    public CsvGenerationSink(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        StringBuilder header = new StringBuilder("generation,population");
+        for (Strategy strategy : STRATEGIES) {
+            String prefix = strategy.name().toLowerCase(Locale.ROOT);
+            header.append(',').append(prefix).append("_count")
+                    .append(',').append(prefix).append("_share")
+                    .append(',').append(prefix).append("_direct")
+                    .append(',').append(prefix).append("_inclusive");
+        }
+        writer.write(header.toString());
+        writer.newLine();
+    }
+
+    @Override
+    public void onGeneration(GenerationStats stats) {
+        StringBuilder line = new StringBuilder(96);
+        line.append(stats.generation()).append(',').append(stats.populationSize());
+        for (Strategy strategy : STRATEGIES) {
+            StrategySnapshot snapshot = stats.snapshot(strategy);
+            line.append(',').append(snapshot.count())
+                    .append(',').append(stats.share(strategy))
+                    .append(',').append(snapshot.averageDirectFitness())
+                    .append(',').append(snapshot.averageInclusiveFitness());
+        }
+        try {
+            writer.write(line.toString());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
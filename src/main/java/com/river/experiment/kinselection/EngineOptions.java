@@ -0,0 +1,125 @@
+package com.river.experiment.kinselection;
+
+import java.util.Objects;
+
+import com.river.experiment.core.ExecutionMode;
+
+/**
+ * 模拟引擎的实现选项，与模型参数 {@link SimulationParameters} 分离，只影响计算方式。
+ *
+ * @param execution       执行方式；{@link ExecutionMode#DETERMINISTIC_PARALLEL} 仅支持 {@link PopulationBackend#COLUMNAR}，
+ *                        家庭按固定大小分块，随机流由 (种子, 代数, 分块序号) 派生
+ * @param parallelism     {@link ExecutionMode#DETERMINISTIC_PARALLEL} 下使用的线程数，不影响结果
+ * @param fusedGeneration 列式存储下是否用融合单遍内核：每个家庭块一次扫描完成重置、互动、
+ *                        适合度结算、统计与繁殖权重前缀和，省去逐个体适合度列的读写
+ * @param fixationPolicy  检测到吸收态或准平稳态后是继续、停止还是快进
+ */
+public record EngineOptions(PopulationBackend backend,
+                            ParentSelection parentSelection,
+                            InteractionKernel interactionKernel,
+                            ExecutionMode execution,
+                            int parallelism,
+                            boolean fusedGeneration,
+                            FixationPolicy fixationPolicy) {
+
+    public EngineOptions {
+        Objects.requireNonNull(backend, "backend");
+        Objects.requireNonNull(parentSelection, "parentSelection");
+        Objects.requireNonNull(interactionKernel, "interactionKernel");
+        Objects.requireNonNull(execution, "execution");
+        Objects.requireNonNull(fixationPolicy, "fixationPolicy");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+    }
+
+    /**
+     * 默认选项：对象存储 + 逐家庭轮盘赌 + 逐对互动 + 单线程 + 不做固定检测，与历史版本的结果逐位一致。
+     */
+    public static EngineOptions defaults() {
+        return new EngineOptions(
+                PopulationBackend.OBJECTS,
+                ParentSelection.CUMULATIVE_SCAN,
+                InteractionKernel.PAIRWISE,
+                ExecutionMode.SEQUENTIAL,
+                1,
+                false,
+                FixationPolicy.RUN_ALL
+        );
+    }
+
+    public EngineOptions withBackend(PopulationBackend backend) {
+        return new EngineOptions(
+                backend,
+                parentSelection,
+                interactionKernel,
+                execution,
+                parallelism,
+                fusedGeneration,
+                fixationPolicy
+        );
+    }
+
+    public EngineOptions withParentSelection(ParentSelection parentSelection) {
+        return new EngineOptions(
+                backend,
+                parentSelection,
+                interactionKernel,
+                execution,
+                parallelism,
+                fusedGeneration,
+                fixationPolicy
+        );
+    }
+
+    public EngineOptions withInteractionKernel(InteractionKernel interactionKernel) {
+        return new EngineOptions(
+                backend,
+                parentSelection,
+                interactionKernel,
+                execution,
+                parallelism,
+                fusedGeneration,
+                fixationPolicy
+        );
+    }
+
+    /**
+     * 切换为确定性并行执行，并指定线程数。
+     */
+    public EngineOptions withDeterministicParallelism(int parallelism) {
+        return new EngineOptions(
+                backend,
+                parentSelection,
+                interactionKernel,
+                ExecutionMode.DETERMINISTIC_PARALLEL,
+                parallelism,
+                fusedGeneration,
+                fixationPolicy
+        );
+    }
+
+    public EngineOptions withFusedGeneration(boolean fusedGeneration) {
+        return new EngineOptions(
+                backend,
+                parentSelection,
+                interactionKernel,
+                execution,
+                parallelism,
+                fusedGeneration,
+                fixationPolicy
+        );
+    }
+
+    public EngineOptions withFixationPolicy(FixationPolicy fixationPolicy) {
+        return new EngineOptions(
+                backend,
+                parentSelection,
+                interactionKernel,
+                execution,
+                parallelism,
+                fusedGeneration,
+                fixationPolicy
+        );
+    }
+}
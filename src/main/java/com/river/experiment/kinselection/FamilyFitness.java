@@ -0,0 +1,103 @@
+package com.river.experiment.kinselection;
+
+import java.util.EnumMap;
+
+/**
+ * 按家庭内利他者人数 k 预先算好的闭式适合度表（与 {@link InteractionKernel#FAMILY_COUNT} 相同），
+ * 供只记录家庭组成、不保存个体的引擎共用。
+ */
+final class FamilyFitness {
+
+    private final int familySize;
+    private final double benefit;
+    final double[] altruistReceived;
+    final double[] altruistDirect;
+    final double[] altruistInclusive;
+    final double[] selfishReceived;
+    final double[] selfishDirect;
+    final double[] altruistWeight;
+    final double[] selfishWeight;
+
+    FamilyFitness(SimulationParameters parameters) {
+        this.familySize = parameters.familySize();
+        this.benefit = parameters.benefit();
+        double sharePerRelative = parameters.benefit() / (familySize - 1);
+        double base = parameters.baseFitness();
+        double cost = parameters.cost();
+        double relatedness = parameters.relatednessWithinFamily();
+        altruistReceived = new double[familySize + 1];
+        altruistDirect = new double[familySize + 1];
+        altruistInclusive = new double[familySize + 1];
+        selfishReceived = new double[familySize + 1];
+        selfishDirect = new double[familySize + 1];
+        altruistWeight = new double[familySize + 1];
+        selfishWeight = new double[familySize + 1];
+        for (int k = 0; k <= familySize; k++) {
+            altruistReceived[k] = (k - 1) * sharePerRelative;
+            altruistDirect[k] = base - cost + altruistReceived[k];
+            altruistInclusive[k] = altruistDirect[k] + relatedness * benefit;
+            selfishReceived[k] = k * sharePerRelative;
+            selfishDirect[k] = base + selfishReceived[k];
+            altruistWeight[k] = ParentSampler.reproductiveWeight(altruistInclusive[k]);
+            selfishWeight[k] = ParentSampler.reproductiveWeight(selfishDirect[k]);
+        }
+    }
+
+    /**
+     * 含 k 名利他者的家庭的繁殖权重总和。
+     */
+    double familyWeight(int k) {
+        return k * altruistWeight[k] + (familySize - k) * selfishWeight[k];
+    }
+
+    /**
+     * 由“含 k 名利他者的家庭数”直方图汇总出一代统计。
+     */
+    GenerationStats summarize(int generationIndex, long[] families) {
+        long altruistCount = 0;
+        double altruistDirectSum = 0.0;
+        double altruistInclusiveSum = 0.0;
+        double altruistReceivedSum = 0.0;
+        long selfishCount = 0;
+        double selfishDirectSum = 0.0;
+        double selfishReceivedSum = 0.0;
+        for (int k = 0; k <= familySize; k++) {
+            long households = families[k];
+            if (households == 0) {
+                continue;
+            }
+            long altruists = households * k;
+            long selfish = households * (familySize - k);
+            altruistCount += altruists;
+            altruistDirectSum += altruists * altruistDirect[k];
+            altruistInclusiveSum += altruists * altruistInclusive[k];
+            altruistReceivedSum += altruists * altruistReceived[k];
+            selfishCount += selfish;
+            selfishDirectSum += selfish * selfishDirect[k];
+            selfishReceivedSum += selfish * selfishReceived[k];
+        }
+
+        EnumMap<Strategy, StrategySnapshot> snapshots = new EnumMap<>(Strategy.class);
+        snapshots.put(Strategy.ALTRUIST, altruistCount == 0
+                ? new StrategySnapshot(Strategy.ALTRUIST, 0, 0, 0, 0, 0)
+                : new StrategySnapshot(
+                        Strategy.ALTRUIST,
+                        Math.toIntExact(altruistCount),
+                        altruistDirectSum / altruistCount,
+                        altruistInclusiveSum / altruistCount,
+                        benefit,
+                        altruistReceivedSum / altruistCount
+                ));
+        snapshots.put(Strategy.SELFISH, selfishCount == 0
+                ? new StrategySnapshot(Strategy.SELFISH, 0, 0, 0, 0, 0)
+                : new StrategySnapshot(
+                        Strategy.SELFISH,
+                        Math.toIntExact(selfishCount),
+                        selfishDirectSum / selfishCount,
+                        selfishDirectSum / selfishCount,
+                        0.0,
+                        selfishReceivedSum / selfishCount
+                ));
+        return new GenerationStats(generationIndex, snapshots);
+    }
+}
@@ -0,0 +1,93 @@
+package com.river.experiment.kinselection;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * 聚合引擎：只记录“含 k 名利他者的家庭有多少户”的直方图，不再逐个保存个体。
+ * <p>
+ * 每个家庭由一名亲本创立，子代只因突变而不同，因此同类型家庭内的个体适合度完全相同，
+ * 族群状态可由长度为 {@code familySize + 1} 的直方图完整描述：
+ * <ol>
+ *     <li>按闭式结果计算各类家庭中利他者与自私者的适合度（与 {@link InteractionKernel#FAMILY_COUNT} 相同）；</li>
+ *     <li>亲本为利他者的概率等于利他者繁殖权重之和占总权重的比例，利他亲本家庭数服从二项分布；</li>
+ *     <li>同一亲本的子代利他人数服从二项分布，新直方图由两次多项分布抽样得到。</li>
+ * </ol>
+ * 内存与族群规模无关，只与家庭规模成正比，可模拟十亿级个体。
+ */
+final class FamilyHistogramPopulation {
+
+    private static final int STRATEGY_COUNT = Strategy.values().length;
+
+    private final SimulationParameters parameters;
+    private final FamilyFitness fitness;
+    private final int familySize;
+    private final long familyCount;
+    private final long[] families;
+    private final long[] nextFamilies;
+    private final double[] altruistFoundedMass;
+    private final double[] selfishFoundedMass;
+
+    FamilyHistogramPopulation(SimulationParameters parameters) {
+        this.parameters = parameters;
+        this.fitness = new FamilyFitness(parameters);
+        this.familySize = parameters.familySize();
+        this.familyCount = parameters.familiesPerGeneration();
+        this.families = new long[familySize + 1];
+        this.nextFamilies = new long[familySize + 1];
+        // 突变后随机取一种策略（可能与原策略相同），故保持利他的概率为 1 - μ + μ / 策略数
+        double mutationRate = parameters.mutationRate();
+        double keepAltruist = 1.0 - mutationRate + mutationRate / STRATEGY_COUNT;
+        double becomeAltruist = mutationRate / STRATEGY_COUNT;
+        this.altruistFoundedMass = BinomialSampler.probabilityMass(familySize, keepAltruist);
+        this.selfishFoundedMass = BinomialSampler.probabilityMass(familySize, becomeAltruist);
+    }
+
+    void initialize(RandomGenerator random) {
+        double[] initialMass = BinomialSampler.probabilityMass(familySize, parameters.initialAltruistShare());
+        Arrays.fill(families, 0);
+        BinomialSampler.multinomial(random, familyCount, initialMass, families);
+    }
+
+    /**
+     * 从其他存储折算出的直方图接管族群状态，{@code familyHistogram[k]} 为含 k 名利他者的家庭数。
+     */
+    void load(long[] familyHistogram) {
+        System.arraycopy(familyHistogram, 0, families, 0, families.length);
+    }
+
+    long[] familyHistogram() {
+        return families.clone();
+    }
+
+    long altruistCount() {
+        long altruists = 0;
+        for (int k = 1; k <= familySize; k++) {
+            altruists += k * families[k];
+        }
+        return altruists;
+    }
+
+    GenerationStats runGeneration(int generationIndex, RandomGenerator random) {
+        GenerationStats stats = fitness.summarize(generationIndex, families);
+
+        double altruistWeight = 0.0;
+        double totalWeight = 0.0;
+        for (int k = 0; k <= familySize; k++) {
+            long households = families[k];
+            if (households == 0) {
+                continue;
+            }
+            double familyAltruistWeight = households * k * fitness.altruistWeight[k];
+            altruistWeight += familyAltruistWeight;
+            totalWeight += familyAltruistWeight + households * (familySize - k) * fitness.selfishWeight[k];
+        }
+
+        long altruistFounded = BinomialSampler.binomial(random, familyCount, altruistWeight / totalWeight);
+        Arrays.fill(nextFamilies, 0);
+        BinomialSampler.multinomial(random, altruistFounded, altruistFoundedMass, nextFamilies);
+        BinomialSampler.multinomial(random, familyCount - altruistFounded, selfishFoundedMass, nextFamilies);
+        System.arraycopy(nextFamilies, 0, families, 0, families.length);
+        return stats;
+    }
+}
@@ -0,0 +1,66 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 非负权重上的树状数组：单点修改、按累积权重定位均为 O(log n)。
+ * 反复做增量修改会累积舍入误差，调用方可定期 {@link #rebuild()} 用原值重建。
+ */
+final class FenwickTree {
+
+    private final int size;
+    private final double[] values;
+    private final double[] tree;
+    private final int highestStep;
+    private double total;
+
+    FenwickTree(int size) {
+        this.size = size;
+        this.values = new double[size];
+        this.tree = new double[size + 1];
+        this.highestStep = Integer.highestOneBit(size);
+    }
+
+    void set(int index, double value) {
+        double delta = value - values[index];
+        values[index] = value;
+        total += delta;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    double total() {
+        return total;
+    }
+
+    /**
+     * 返回累积权重首次超过 {@code target} 的下标，{@code target} 应取自 {@code [0, total())}。
+     */
+    int find(double target) {
+        int position = 0;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= size && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        return Math.min(position, size - 1);
+    }
+
+    /**
+     * 由当前各点的值在 O(n) 内重建整棵树，清除累积的舍入误差。
+     */
+    void rebuild() {
+        System.arraycopy(values, 0, tree, 1, size);
+        tree[0] = 0.0;
+        double sum = 0.0;
+        for (int i = 1; i <= size; i++) {
+            sum += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+        total = sum;
+    }
+}
@@ -0,0 +1,36 @@
+package com.river.experiment.kinselection;
+
+import java.util.List;
+
+/**
+ * 单个利他突变体最终固定概率的估计值、置信区间与所用算力。
+ *
+ * @param probability                    各级条件概率之积
+ * @param lowerBound                     95% 置信下限
+ * @param upperBound                     95% 置信上限；某级无轨迹成功时为按“三法则”给出的上界
+ * @param levels                         各级阈值与成功次数
+ * @param simulatedGenerations           所有轨迹累计推进的代数
+ * @param agentGenerations               累计推进的个体·代数（代数 × 族群规模）
+ * @param equivalentBruteForceRuns       朴素蒙特卡洛要达到同样相对误差所需的完整运行次数
+ * @param estimatedBruteForceGenerations 上述朴素运行的预计总代数，单次运行长度由各级轨迹的平均长度按到达概率加权估算
+ */
+public record FixationEstimate(double probability,
+                               double lowerBound,
+                               double upperBound,
+                               List<SplittingLevel> levels,
+                               long simulatedGenerations,
+                               long agentGenerations,
+                               double equivalentBruteForceRuns,
+                               double estimatedBruteForceGenerations) {
+
+    public FixationEstimate {
+        levels = List.copyOf(levels);
+    }
+
+    /**
+     * 同样精度下朴素蒙特卡洛与本次估计的代数之比。
+     */
+    public double speedup() {
+        return estimatedBruteForceGenerations / simulatedGenerations;
+    }
+}
@@ -0,0 +1,34 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 模拟中检测到的吸收态或准平稳态，以及随后采取的捷径。
+ *
+ * @param generation    检测到该状态的代数，此前各代均由完整引擎计算
+ * @param fixedStrategy 吸收态下占满族群的策略；准平稳态时为 {@code null}
+ * @param altruistShare 吸收态下为 0 或 1，准平稳态下为最近一个窗口的利他者平均占比
+ */
+public record FixationEvent(Kind kind,
+                            FixationPolicy policy,
+                            int generation,
+                            Strategy fixedStrategy,
+                            double altruistShare) {
+
+    public enum Kind {
+        /**
+         * 突变率为 0 且某一策略占满族群。
+         */
+        FIXATION,
+
+        /**
+         * 突变率大于 0，利他者占比在相邻两个窗口间的变化小于阈值。
+         */
+        QUASI_STATIONARY
+    }
+
+    /**
+     * 由完整引擎逐代计算的代数。
+     */
+    public int simulatedGenerations() {
+        return generation + 1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 逐代观察统计，发现吸收态或准平稳态时返回对应事件，每次运行只报告一次。
+ */
+final class FixationMonitor {
+
+    static final int QUASI_STATIONARY_WINDOW = 100;
+    static final double QUASI_STATIONARY_TOLERANCE = 0.005;
+
+    private final FixationPolicy policy;
+    private final boolean mutating;
+    private final boolean detectQuasiStationary;
+    private double windowSum;
+    private int windowFill;
+    private double previousWindowMean = Double.NaN;
+
+    FixationMonitor(FixationPolicy policy, SimulationParameters parameters, boolean detectQuasiStationary) {
+        this.policy = policy;
+        this.mutating = parameters.mutationRate() > 0.0;
+        this.detectQuasiStationary = detectQuasiStationary;
+    }
+
+    /**
+     * @return 检测到的事件，尚未检测到时为 {@code null}
+     */
+    FixationEvent observe(GenerationStats stats) {
+        if (!mutating) {
+            for (Strategy strategy : Strategy.values()) {
+                if (stats.snapshot(strategy).count() == stats.populationSize()) {
+                    return new FixationEvent(
+                            FixationEvent.Kind.FIXATION,
+                            policy,
+                            stats.generation(),
+                            strategy,
+                            stats.share(Strategy.ALTRUIST)
+                    );
+                }
+            }
+            return null;
+        }
+        if (!detectQuasiStationary) {
+            return null;
+        }
+        windowSum += stats.share(Strategy.ALTRUIST);
+        if (++windowFill < QUASI_STATIONARY_WINDOW) {
+            return null;
+        }
+        double windowMean = windowSum / QUASI_STATIONARY_WINDOW;
+        windowSum = 0.0;
+        windowFill = 0;
+        boolean settled = Math.abs(windowMean - previousWindowMean) < QUASI_STATIONARY_TOLERANCE;
+        previousWindowMean = windowMean;
+        if (!settled) {
+            return null;
+        }
+        return new FixationEvent(
+                FixationEvent.Kind.QUASI_STATIONARY,
+                policy,
+                stats.generation(),
+                null,
+                windowMean
+        );
+    }
+}
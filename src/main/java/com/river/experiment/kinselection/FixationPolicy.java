@@ -0,0 +1,28 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 族群进入吸收态或准平稳态之后的处理方式。
+ * <p>
+ * 突变率为 0 时，某一策略占满族群即为吸收态：此后每代状态与统计完全相同。
+ * 突变率大于 0 时，用相邻两个固定长度窗口的利他者平均占比判断是否已进入突变—选择平衡的准平稳态。
+ */
+public enum FixationPolicy {
+
+    /**
+     * 不做检测，始终逐代完整计算，与历史版本一致。
+     */
+    RUN_ALL,
+
+    /**
+     * 检测到吸收态或准平稳态即停止，结果只包含已计算的代，并记录停止时的代数。
+     */
+    STOP_AT_FIXATION,
+
+    /**
+     * 检测到吸收态时，剩余各代直接复制固定后的统计（结果精确）；
+     * 检测到准平稳态时，把当前族群折算为家庭直方图，剩余各代交给
+     * {@link PopulationBackend#FAMILY_HISTOGRAM} 的聚合引擎推进（分布相同，随机序列不同）。
+     * 家庭直方图存储或系统重抽样下没有更快的路径，只处理吸收态；谱系相关模式不支持该策略。
+     */
+    FAST_FORWARD
+}
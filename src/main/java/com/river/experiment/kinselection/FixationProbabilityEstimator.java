@@ -0,0 +1,245 @@
+package com.river.experiment.kinselection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import com.river.experiment.core.RandomStreams;
+
+/**
+ * 用多级分裂（固定工作量）估计单个利他突变体在无突变族群中最终固定的概率。
+ * <p>
+ * 按利他者人数设置递增阈值 L1 &lt; L2 &lt; … &lt; N。第一级从“一名利他者 + 其余自私者”出发，
+ * 之后每一级都从上一级轨迹首次达到阈值时的状态克隆出固定数量的新轨迹，
+ * 直到达到下一级阈值或利他者灭绝。固定概率等于各级条件概率之积，
+ * 只需模拟少量轨迹即可估计 1e-5 量级的小概率。
+ * <p>
+ * 置信区间按 Var(ln p) ≈ Σ (1 - p_i) / (n_i p_i) 计算，忽略同级克隆之间的相关性，略偏乐观。
+ * 每条轨迹的随机流由 (种子, 级别, 轨迹序号) 派生，结果可复现。
+ */
+public final class FixationProbabilityEstimator {
+
+    private static final double Z_95 = 1.959963984540054;
+
+    private final SimulationParameters parameters;
+    private final long seed;
+    private final EngineOptions options;
+
+    public FixationProbabilityEstimator(SimulationParameters parameters, long seed) {
+        this(parameters, seed, EngineOptions.defaults().withBackend(PopulationBackend.COLUMNAR));
+    }
+
+    /**
+     * @param options 对象与列式存储都按列式融合内核推进，{@link PopulationBackend#FAMILY_HISTOGRAM}
+     *                用家庭直方图推进（每代开销与族群规模无关）；执行方式与固定检测选项不起作用
+     */
+    public FixationProbabilityEstimator(SimulationParameters parameters, long seed, EngineOptions options) {
+        this.parameters = Objects.requireNonNull(parameters, "parameters");
+        this.options = Objects.requireNonNull(options, "options");
+        if (parameters.relatednessMode() != RelatednessMode.CONSTANT) {
+            throw new IllegalArgumentException("固定概率估计仅支持常数相关系数。");
+        }
+        if (parameters.mutationRate() != 0.0) {
+            throw new IllegalArgumentException("固定概率估计要求突变率为 0，否则不存在吸收态。");
+        }
+        if (options.backend() == PopulationBackend.FAMILY_HISTOGRAM
+                && options.parentSelection() == ParentSelection.SYSTEMATIC) {
+            throw new IllegalArgumentException("家庭直方图引擎按独立抽样繁殖，不支持系统重抽样。");
+        }
+        this.seed = seed;
+    }
+
+    /**
+     * 以 2、4、8… 名利他者为中间阈值进行估计。
+     */
+    public FixationEstimate estimate(int trajectoriesPerLevel) {
+        List<Integer> doubling = new ArrayList<>();
+        for (int level = 2; level < parameters.populationSize(); level *= 2) {
+            doubling.add(level);
+        }
+        return estimate(trajectoriesPerLevel, doubling.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @param intermediateLevels 严格递增、介于 1 与族群规模之间的利他者人数阈值，最后一级“固定”自动追加
+     */
+    public FixationEstimate estimate(int trajectoriesPerLevel, int[] intermediateLevels) {
+        if (trajectoriesPerLevel <= 0) {
+            throw new IllegalArgumentException("每级轨迹数必须为正数。");
+        }
+        int populationSize = parameters.populationSize();
+        int[] thresholds = Arrays.copyOf(intermediateLevels, intermediateLevels.length + 1);
+        thresholds[intermediateLevels.length] = populationSize;
+        int previous = 1;
+        for (int threshold : thresholds) {
+            if (threshold <= previous || threshold > populationSize) {
+                throw new IllegalArgumentException("分裂阈值必须严格递增且介于 1 与族群规模之间。");
+            }
+            previous = threshold;
+        }
+        return options.backend() == PopulationBackend.FAMILY_HISTOGRAM
+                ? run(new HistogramWalker(), trajectoriesPerLevel, thresholds)
+                : run(new ColumnarWalker(), trajectoriesPerLevel, thresholds);
+    }
+
+    private <S> FixationEstimate run(Walker<S> walker, int trajectoriesPerLevel, int[] thresholds) {
+        List<SplittingLevel> levels = new ArrayList<>(thresholds.length);
+        List<S> entrances = List.of(walker.initialState());
+        long generations = 0;
+        double expectedRunLength = 0.0;
+        double probability = 1.0;
+        double logVariance = 0.0;
+        double upperBound = Double.NaN;
+
+        for (int level = 0; level < thresholds.length; level++) {
+            long levelStart = generations;
+            List<S> reached = new ArrayList<>();
+            for (int trajectory = 0; trajectory < trajectoriesPerLevel; trajectory++) {
+                SplittableRandom random = RandomStreams.stream(seed, level, trajectory);
+                walker.load(entrances.get(trajectory % entrances.size()));
+                while (true) {
+                    long altruists = walker.altruists();
+                    if (altruists >= thresholds[level]) {
+                        reached.add(walker.save());
+                        break;
+                    }
+                    if (altruists == 0) {
+                        break;
+                    }
+                    walker.advance(random);
+                    generations++;
+                }
+            }
+            // 朴素运行在本段平均停留的代数，按到达本级入口的概率加权
+            expectedRunLength += probability * (generations - levelStart) / trajectoriesPerLevel;
+            SplittingLevel result = new SplittingLevel(thresholds[level], trajectoriesPerLevel, reached.size());
+            levels.add(result);
+            if (reached.isEmpty()) {
+                upperBound = probability * Math.min(1.0, 3.0 / trajectoriesPerLevel);
+                probability = 0.0;
+                break;
+            }
+            double levelProbability = result.probability();
+            probability *= levelProbability;
+            logVariance += (1.0 - levelProbability) / (trajectoriesPerLevel * levelProbability);
+            entrances = reached;
+        }
+
+        long agentGenerations = generations * parameters.populationSize();
+        if (probability == 0.0) {
+            return new FixationEstimate(0.0, 0.0, upperBound, levels, generations, agentGenerations,
+                    Double.NaN, Double.NaN);
+        }
+        double halfWidth = Z_95 * Math.sqrt(logVariance);
+        double bruteForceRuns = logVariance == 0.0
+                ? Double.NaN
+                : (1.0 - probability) / (probability * logVariance);
+        return new FixationEstimate(
+                probability,
+                probability * Math.exp(-halfWidth),
+                Math.min(1.0, probability * Math.exp(halfWidth)),
+                levels,
+                generations,
+                agentGenerations,
+                bruteForceRuns,
+                bruteForceRuns * expectedRunLength
+        );
+    }
+
+    /**
+     * 可保存与恢复状态的单条轨迹。调用顺序固定为：{@link #altruists()} 判断是否越过阈值，再 {@link #advance}。
+     */
+    private interface Walker<S> {
+
+        S initialState();
+
+        void load(S state);
+
+        S save();
+
+        long altruists();
+
+        void advance(RandomGenerator random);
+    }
+
+    private final class ColumnarWalker implements Walker<byte[]> {
+
+        private final ColumnarPopulation population =
+                new ColumnarPopulation(parameters.populationSize(), parameters.familySize(), false);
+        private final ParentSampler sampler =
+                new ParentSampler(options.parentSelection(), parameters.populationSize());
+        private final StrategyTotals totals = new StrategyTotals();
+
+        @Override
+        public byte[] initialState() {
+            byte[] strategies = new byte[parameters.populationSize()];
+            Arrays.fill(strategies, ColumnarPopulation.SELFISH);
+            strategies[0] = ColumnarPopulation.ALTRUIST;
+            return strategies;
+        }
+
+        @Override
+        public void load(byte[] state) {
+            population.loadStrategies(state);
+        }
+
+        @Override
+        public byte[] save() {
+            return population.copyStrategies();
+        }
+
+        /**
+         * 融合扫描在计数的同时写好繁殖权重，随后的 {@link #advance} 直接使用。
+         */
+        @Override
+        public long altruists() {
+            totals.reset();
+            population.fusedSweep(0, population.familyCount(), parameters, totals, sampler.cumulativeWeights());
+            return totals.count(Strategy.ALTRUIST);
+        }
+
+        @Override
+        public void advance(RandomGenerator random) {
+            int families = population.familyCount();
+            sampler.prepareFromCumulative(population.size(), families, random);
+            population.breedFamilies(0, families, sampler, random, 0.0);
+            population.swapGenerations();
+        }
+    }
+
+    private final class HistogramWalker implements Walker<long[]> {
+
+        private final FamilyHistogramPopulation histogram = new FamilyHistogramPopulation(parameters);
+
+        @Override
+        public long[] initialState() {
+            long[] families = new long[parameters.familySize() + 1];
+            families[0] = parameters.familiesPerGeneration() - 1;
+            families[1] = 1;
+            return families;
+        }
+
+        @Override
+        public void load(long[] state) {
+            histogram.load(state);
+        }
+
+        @Override
+        public long[] save() {
+            return histogram.familyHistogram();
+        }
+
+        @Override
+        public long altruists() {
+            return histogram.altruistCount();
+        }
+
+        @Override
+        public void advance(RandomGenerator random) {
+            histogram.runGeneration(0, random);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 每代统计产出后立即回调的监听器，可把数据流式写入文件或聚合器，而不必在内存中保留全部历史。
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /**
+     * 在该代统计完成、下一代繁殖之后按代数顺序调用。
+     */
+    void onGeneration(GenerationStats stats);
+}
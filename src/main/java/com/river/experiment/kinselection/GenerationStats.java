@@ -13,14 +13,24 @@ public final class GenerationStats {
     private final EnumMap<Strategy, StrategySnapshot> strategySnapshots;
     private final int populationSize;
 
+    /**
+     * 调用方移交快照表的所有权，构造时不再复制。
+     */
     GenerationStats(int generation, EnumMap<Strategy, StrategySnapshot> strategySnapshots) {
         this.generation = generation;
-        this.strategySnapshots = new EnumMap<>(strategySnapshots);
+        this.strategySnapshots = strategySnapshots;
         this.populationSize = strategySnapshots.values().stream()
                 .mapToInt(StrategySnapshot::count)
                 .sum();
     }
 
+    /**
+     * 同样的统计换一个代数，供吸收态快进使用；快照表不可变，可直接共享。
+     */
+    GenerationStats atGeneration(int generationIndex) {
+        return new GenerationStats(generationIndex, strategySnapshots);
+    }
+
     public int generation() {
         return generation;
     }
@@ -0,0 +1,260 @@
+package com.river.experiment.kinselection;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.river.experiment.core.RandomStreams;
+
+/**
+ * 在 (benefit, cost, relatednessWithinFamily) 三维网格上批量运行亲缘选择模拟，得到汉密尔顿法则的经验相图。
+ * <p>
+ * 每个工作线程持有一套族群缓冲区（列式策略数组、繁殖权重与统计累加器），在各次运行之间重复使用，
+ * 从任务计数器领取格点，每个格点跑若干个种子。每次运行的种子由 (扫描种子, 格点, 种子序号) 派生，
+ * 列式模式下单次运行与 {@code new KinSelectionSimulation(parameters, seed, 列式 + 融合选项)} 的结果逐位一致，
+ * 整个扫描的结果与线程数无关。格点按序号顺序写入 CSV，完成一段就落盘一段。
+ */
+public final class HamiltonSweep {
+
+    private static final String CSV_HEADER =
+            "benefit,cost,relatedness,rb_minus_c,theory_altruism,mean_final_share,min_final_share,"
+                    + "max_final_share,empirical_altruism,agrees";
+
+    private final SimulationParameters template;
+    private final SweepAxis benefit;
+    private final SweepAxis cost;
+    private final SweepAxis relatedness;
+    private final int seedsPerCell;
+    private final long seed;
+    private final PopulationBackend backend;
+    private final int parallelism;
+
+    /**
+     * @param template     其余参数（人口、家庭规模、代数、基础适合度、突变率、初始占比）的来源
+     * @param backend      {@link PopulationBackend#FAMILY_HISTOGRAM} 用家庭直方图推进，其余取值按列式融合内核逐个体推进
+     * @param parallelism  工作线程数，不影响结果
+     */
+    public HamiltonSweep(SimulationParameters template,
+                         SweepAxis benefit,
+                         SweepAxis cost,
+                         SweepAxis relatedness,
+                         int seedsPerCell,
+                         long seed,
+                         PopulationBackend backend,
+                         int parallelism) {
+        this.template = Objects.requireNonNull(template, "template");
+        this.benefit = Objects.requireNonNull(benefit, "benefit");
+        this.cost = Objects.requireNonNull(cost, "cost");
+        this.relatedness = Objects.requireNonNull(relatedness, "relatedness");
+        this.backend = Objects.requireNonNull(backend, "backend");
+        if (seedsPerCell <= 0) {
+            throw new IllegalArgumentException("每个格点的种子数必须为正数。");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+        if (template.relatednessMode() != RelatednessMode.CONSTANT) {
+            throw new IllegalArgumentException("相图扫描仅支持常数相关系数。");
+        }
+        this.seedsPerCell = seedsPerCell;
+        this.seed = seed;
+        this.parallelism = parallelism;
+        // 提前构造两个角点，让越界的坐标轴在开始前就报错
+        cellParameters(0, 0, 0);
+        cellParameters(benefit.points() - 1, cost.points() - 1, relatedness.points() - 1);
+    }
+
+    static int cellIndex(SweepAxis benefit, SweepAxis cost, int benefitIndex, int costIndex, int relatednessIndex) {
+        return (relatednessIndex * cost.points() + costIndex) * benefit.points() + benefitIndex;
+    }
+
+    /**
+     * 运行整个扫描，每个格点一行写入 {@code csvFile}。
+     */
+    public HamiltonSweepResult run(Path csvFile) throws IOException {
+        Path parent = csvFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        int cells = benefit.points() * cost.points() * relatedness.points();
+        long start = System.nanoTime();
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            OrderedCsv csv = new OrderedCsv(writer, cells);
+            AtomicInteger nextCell = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                List<Future<Long>> workers = new ArrayList<>(parallelism);
+                for (int worker = 0; worker < parallelism; worker++) {
+                    workers.add(executor.submit(() -> new Worker().drain(nextCell, cells, csv)));
+                }
+                long generations = 0;
+                for (Future<Long> worker : workers) {
+                    generations += worker.get();
+                }
+                return new HamiltonSweepResult(
+                        benefit,
+                        cost,
+                        relatedness,
+                        csv.meanFinalShare,
+                        generations,
+                        System.nanoTime() - start
+                );
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("相图扫描被中断。", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw new IllegalStateException("相图扫描工作线程失败。", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private SimulationParameters cellParameters(int benefitIndex, int costIndex, int relatednessIndex) {
+        return new SimulationParameters(
+                template.populationSize(),
+                template.familySize(),
+                template.generations(),
+                template.baseFitness(),
+                benefit.value(benefitIndex),
+                cost.value(costIndex),
+                template.mutationRate(),
+                relatedness.value(relatednessIndex),
+                template.initialAltruistShare()
+        );
+    }
+
+    /**
+     * 工作线程私有的缓冲区，在该线程的全部运行之间复用。
+     */
+    private final class Worker {
+
+        private final ColumnarPopulation population;
+        private final ParentSampler sampler;
+        private final StrategyTotals totals = new StrategyTotals();
+        private final Random random = new Random();
+
+        Worker() {
+            boolean columnar = backend != PopulationBackend.FAMILY_HISTOGRAM;
+            this.population = columnar
+                    ? new ColumnarPopulation(template.populationSize(), template.familySize(), false)
+                    : null;
+            this.sampler = columnar
+                    ? new ParentSampler(ParentSelection.CUMULATIVE_SCAN, template.populationSize())
+                    : null;
+        }
+
+        long drain(AtomicInteger nextCell, int cells, OrderedCsv csv) {
+            long generations = 0;
+            int benefitPoints = benefit.points();
+            int costPoints = cost.points();
+            for (int cell = nextCell.getAndIncrement(); cell < cells; cell = nextCell.getAndIncrement()) {
+                int benefitIndex = cell % benefitPoints;
+                int costIndex = cell / benefitPoints % costPoints;
+                int relatednessIndex = cell / benefitPoints / costPoints;
+                SimulationParameters parameters = cellParameters(benefitIndex, costIndex, relatednessIndex);
+                double sum = 0.0;
+                double min = 1.0;
+                double max = 0.0;
+                for (int replicate = 0; replicate < seedsPerCell; replicate++) {
+                    long runSeed = RandomStreams.stream(seed, cell, replicate).nextLong();
+                    double share = population == null
+                            ? runHistogram(parameters, runSeed)
+                            : runColumnar(parameters, runSeed);
+                    sum += share;
+                    min = Math.min(min, share);
+                    max = Math.max(max, share);
+                    generations += parameters.generations();
+                }
+                csv.complete(cell, parameters, sum / seedsPerCell, min, max);
+            }
+            return generations;
+        }
+
+        /**
+         * 与 {@link KinSelectionSimulation} 的列式融合路径相同的随机数消耗顺序，返回最后一代的利他者占比。
+         */
+        private double runColumnar(SimulationParameters parameters, long runSeed) {
+            random.setSeed(runSeed);
+            int families = population.familyCount();
+            population.randomize(0, families, parameters.initialAltruistShare(), random);
+            for (int generation = 0; generation < parameters.generations(); generation++) {
+                totals.reset();
+                population.fusedSweep(0, families, parameters, totals, sampler.cumulativeWeights());
+                sampler.prepareFromCumulative(population.size(), families, random);
+                population.breedFamilies(0, families, sampler, random, parameters.mutationRate());
+                population.swapGenerations();
+            }
+            return (double) totals.count(Strategy.ALTRUIST) / population.size();
+        }
+
+        private double runHistogram(SimulationParameters parameters, long runSeed) {
+            random.setSeed(runSeed);
+            FamilyHistogramPopulation histogram = new FamilyHistogramPopulation(parameters);
+            histogram.initialize(random);
+            GenerationStats last = null;
+            for (int generation = 0; generation < parameters.generations(); generation++) {
+                last = histogram.runGeneration(generation, random);
+            }
+            return last.share(Strategy.ALTRUIST);
+        }
+    }
+
+    /**
+     * 按格点序号顺序写出：格点完成时先登记，再把从游标开始连续完成的格点一起落盘。
+     */
+    private final class OrderedCsv {
+
+        private final BufferedWriter writer;
+        private final double[] meanFinalShare;
+        private final String[] pendingLines;
+        private int cursor;
+
+        OrderedCsv(BufferedWriter writer, int cells) {
+            this.writer = writer;
+            this.meanFinalShare = new double[cells];
+            this.pendingLines = new String[cells];
+        }
+
+        synchronized void complete(int cell,
+                                   SimulationParameters parameters,
+                                   double mean,
+                                   double min,
+                                   double max) {
+            meanFinalShare[cell] = mean;
+            double margin = parameters.relatednessWithinFamily() * parameters.benefit() - parameters.cost();
+            boolean theory = margin > 0;
+            boolean empirical = mean > 0.5;
+            pendingLines[cell] = parameters.benefit() + "," + parameters.cost() + ","
+                    + parameters.relatednessWithinFamily() + "," + margin + "," + theory + ","
+                    + mean + "," + min + "," + max + "," + empirical + "," + (theory == empirical);
+            try {
+                while (cursor < pendingLines.length && pendingLines[cursor] != null) {
+                    writer.write(pendingLines[cursor]);
+                    writer.newLine();
+                    pendingLines[cursor] = null;
+                    cursor++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
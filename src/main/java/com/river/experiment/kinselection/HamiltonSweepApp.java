@@ -0,0 +1,75 @@
+package com.river.experiment.kinselection;
+
+import java.nio.file.Path;
+
+import com.river.experiment.core.chart.HeatmapRenderer;
+
+/**
+ * 汉密尔顿法则相图扫描入口：在 100×100×20 的 (B, C, r) 网格上批量模拟，
+ * 逐格写出 CSV，并为若干相关系数切片生成平均最终利他者占比热力图。
+ */
+public final class HamiltonSweepApp {
+
+    public static void main(String[] args) throws Exception {
+        SimulationParameters template = new SimulationParameters(
+                6000,     // 总人口数量
+                6,        // 每个家庭的成员数
+                200,      // 每次运行的代数
+                1.0,      // 基础适合度
+                1.0,      // 收益（由扫描覆盖）
+                0.1,      // 成本（由扫描覆盖）
+                0.02,     // 策略突变率
+                0.5,      // 相关系数（由扫描覆盖）
+                0.25      // 初始利他者占比
+        );
+        SweepAxis benefit = new SweepAxis(0.05, 5.0, 100);
+        SweepAxis cost = new SweepAxis(0.05, 2.5, 100);
+        SweepAxis relatedness = new SweepAxis(0.0, 1.0, 20);
+        HamiltonSweep sweep = new HamiltonSweep(
+                template,
+                benefit,
+                cost,
+                relatedness,
+                2,
+                42L,
+                PopulationBackend.FAMILY_HISTOGRAM,
+                Runtime.getRuntime().availableProcessors()
+        );
+
+        Path outputDirectory = Path.of("articles", "generated", "hamilton-sweep");
+        HamiltonSweepResult result = sweep.run(outputDirectory.resolve("hamilton-sweep.csv"));
+
+        System.out.println("汉密尔顿法则相图扫描");
+        System.out.printf("  格点=%d, 累计代数=%d, 耗时=%.1f 秒%n",
+                result.cellCount(), result.simulatedGenerations(), result.elapsedNanos() / 1e9);
+        System.out.printf("  经验结论与 rB > C 一致的格点占比：%.1f%%%n", 100 * result.agreementRate());
+
+        double[] benefitValues = axisValues(benefit);
+        double[] costValues = axisValues(cost);
+        for (int r : new int[]{0, relatedness.points() / 2, relatedness.points() - 1}) {
+            Path chart = HeatmapRenderer.render(
+                    outputDirectory.resolve(String.format("hamilton-sweep-r%02d.png", r)),
+                    String.format("平均最终利他者占比（r = %.2f）", relatedness.value(r)),
+                    "收益 B",
+                    "成本 C",
+                    benefitValues,
+                    costValues,
+                    result.meanFinalShareSlice(r),
+                    0.0,
+                    1.0
+            );
+            System.out.println("  " + chart.toAbsolutePath());
+        }
+    }
+
+    private static double[] axisValues(SweepAxis axis) {
+        double[] values = new double[axis.points()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = axis.value(i);
+        }
+        return values;
+    }
+
+    private HamiltonSweepApp() {
+    }
+}
@@ -0,0 +1,98 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 汉密尔顿法则相图扫描的汇总：每个格点（b, c, r）上各种子最终利他者占比的均值，
+ * 以及经验结论（均值超过一半）与理论判据 rB &gt; C 的对照。
+ */
+public final class HamiltonSweepResult {
+
+    private final SweepAxis benefit;
+    private final SweepAxis cost;
+    private final SweepAxis relatedness;
+    private final double[] meanFinalShare;
+    private final long simulatedGenerations;
+    private final long elapsedNanos;
+
+    HamiltonSweepResult(SweepAxis benefit,
+                        SweepAxis cost,
+                        SweepAxis relatedness,
+                        double[] meanFinalShare,
+                        long simulatedGenerations,
+                        long elapsedNanos) {
+        this.benefit = benefit;
+        this.cost = cost;
+        this.relatedness = relatedness;
+        this.meanFinalShare = meanFinalShare;
+        this.simulatedGenerations = simulatedGenerations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SweepAxis benefitAxis() {
+        return benefit;
+    }
+
+    public SweepAxis costAxis() {
+        return cost;
+    }
+
+    public SweepAxis relatednessAxis() {
+        return relatedness;
+    }
+
+    public int cellCount() {
+        return meanFinalShare.length;
+    }
+
+    public double meanFinalShare(int benefitIndex, int costIndex, int relatednessIndex) {
+        return meanFinalShare[HamiltonSweep.cellIndex(benefit, cost, benefitIndex, costIndex, relatednessIndex)];
+    }
+
+    public boolean theoryFavoursAltruism(int benefitIndex, int costIndex, int relatednessIndex) {
+        return relatedness.value(relatednessIndex) * benefit.value(benefitIndex) > cost.value(costIndex);
+    }
+
+    public boolean empiricallyFavoursAltruism(int benefitIndex, int costIndex, int relatednessIndex) {
+        return meanFinalShare(benefitIndex, costIndex, relatednessIndex) > 0.5;
+    }
+
+    /**
+     * 固定相关系数下的平均最终利他者占比切片，{@code slice[c][b]} 对应第 c 个成本、第 b 个收益。
+     */
+    public double[][] meanFinalShareSlice(int relatednessIndex) {
+        double[][] slice = new double[cost.points()][benefit.points()];
+        for (int c = 0; c < cost.points(); c++) {
+            for (int b = 0; b < benefit.points(); b++) {
+                slice[c][b] = meanFinalShare(b, c, relatednessIndex);
+            }
+        }
+        return slice;
+    }
+
+    /**
+     * 经验结论与 rB &gt; C 一致的格点占比。
+     */
+    public double agreementRate() {
+        int agreeing = 0;
+        for (int r = 0; r < relatedness.points(); r++) {
+            for (int c = 0; c < cost.points(); c++) {
+                for (int b = 0; b < benefit.points(); b++) {
+                    if (theoryFavoursAltruism(b, c, r) == empiricallyFavoursAltruism(b, c, r)) {
+                        agreeing++;
+                    }
+                }
+            }
+        }
+        return (double) agreeing / meanFinalShare.length;
+    }
+
+    /**
+     * 所有运行累计推进的代数。
+     */
+    public long simulatedGenerations() {
+        return simulatedGenerations;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 家庭内亲缘互动的计算方式。
+ */
+public enum InteractionKernel {
+
+    /**
+     * 逐个利他者向每位亲属分发收益，单个家庭 O(familySize²)，与历史版本逐位一致。
+     */
+    PAIRWISE,
+
+    /**
+     * 先统计家庭内利他者人数 {@code a}，再按闭式结果赋值：每人获得
+     * {@code (a - 自身是否利他) × B / (familySize - 1)}，整代 O(N) 且与家庭规模无关。
+     * 数学上与 {@link #PAIRWISE} 等价，仅存在浮点舍入差异。
+     */
+    FAMILY_COUNT
+}
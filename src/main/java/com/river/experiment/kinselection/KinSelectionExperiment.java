@@ -7,7 +7,7 @@ import com.river.experiment.core.chart.ChartSeries;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.OptionalInt;
+import java.util.Objects;
 
 /**
  * 亲缘选择实验封装，独立于其他实验存在于单独的包中。
@@ -16,6 +16,8 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
 
     private final SimulationParameters parameters;
     private final long seed;
+    private final EngineOptions engineOptions;
+    private final StatsRetention retention;
 
     public KinSelectionExperiment() {
         this(new SimulationParameters(
@@ -32,8 +34,24 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
     }
 
     public KinSelectionExperiment(SimulationParameters parameters, long seed) {
+        this(parameters, seed, EngineOptions.defaults());
+    }
+
+    public KinSelectionExperiment(SimulationParameters parameters, long seed, EngineOptions engineOptions) {
+        this(parameters, seed, engineOptions, StatsRetention.keepAll());
+    }
+
+    /**
+     * 长时间运行时可用 {@code retention} 只保留部分代的统计，首代与 90% 拐点在流式回调中统计，不受影响。
+     */
+    public KinSelectionExperiment(SimulationParameters parameters,
+                                  long seed,
+                                  EngineOptions engineOptions,
+                                  StatsRetention retention) {
         this.parameters = parameters;
         this.seed = seed;
+        this.engineOptions = engineOptions;
+        this.retention = Objects.requireNonNull(retention, "retention");
     }
 
     @Override
@@ -48,18 +66,15 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
 
     @Override
     public KinSelectionReport run() {
-        KinSelectionSimulation simulation = new KinSelectionSimulation(parameters, seed);
-        SimulationResult result = simulation.run();
-        GenerationStats firstGen = result.generations().get(0);
+        KinSelectionSimulation simulation = new KinSelectionSimulation(parameters, seed, engineOptions);
+        MilestoneTracker milestones = new MilestoneTracker();
+        simulation.addListener(milestones);
+        SimulationResult result = simulation.run(retention);
+        GenerationStats firstGen = milestones.firstGeneration;
         GenerationStats finalGen = result.lastGeneration();
         StrategySnapshot altruistFinal = finalGen.snapshot(Strategy.ALTRUIST);
         StrategySnapshot selfishFinal = finalGen.snapshot(Strategy.SELFISH);
 
-        OptionalInt takeoverGeneration = result.generations().stream()
-                .filter(stats -> stats.share(Strategy.ALTRUIST) >= 0.9)
-                .mapToInt(GenerationStats::generation)
-                .min();
-
         double inclusiveAdvantage = altruistFinal.averageInclusiveFitness() - selfishFinal.averageInclusiveFitness();
         double directPenalty = altruistFinal.averageDirectFitness() - selfishFinal.averageDirectFitness();
 
@@ -68,12 +83,31 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
                 result,
                 firstGen,
                 finalGen,
-                takeoverGeneration.isPresent() ? takeoverGeneration.getAsInt() : -1,
+                milestones.takeoverGeneration,
                 inclusiveAdvantage,
                 directPenalty
         );
     }
 
+    /**
+     * 流式记录首代统计与利他者占比首次达到 90% 的代数。
+     */
+    private static final class MilestoneTracker implements GenerationListener {
+
+        private GenerationStats firstGeneration;
+        private int takeoverGeneration = -1;
+
+        @Override
+        public void onGeneration(GenerationStats stats) {
+            if (firstGeneration == null) {
+                firstGeneration = stats;
+            }
+            if (takeoverGeneration < 0 && stats.share(Strategy.ALTRUIST) >= 0.9) {
+                takeoverGeneration = stats.generation();
+            }
+        }
+    }
+
     /**
      * 亲缘选择实验报告，提供公众号文章可直接使用的段落。
      */
@@ -113,7 +147,7 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
             List<String> paragraphs = new ArrayList<>();
             double initialShare = percentage(firstGeneration.share(Strategy.ALTRUIST));
             double finalShare = percentage(finalGeneration.share(Strategy.ALTRUIST));
-            int generationsCount = simulationResult.generations().size();
+            int generationsCount = simulationResult.generationCount();
             boolean reachedNinety = takeoverGeneration >= 0;
             String takeoverLabel = reachedNinety
                     ? "第 " + takeoverGeneration + " 代"
@@ -144,6 +178,7 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
             paragraphs.add(String.format("- 演化设定：按包容适合度抽样繁殖，突变率 %.2f，产出 %d 代日志，可直接转成三张曲线图。",
                     parameters.mutationRate(),
                     generationsCount));
+            simulationResult.fixationEvent().ifPresent(event -> paragraphs.add(describeShortcut(event)));
 
             paragraphs.add("### 数据剧情三段式");
             String takeoverSentence;
@@ -250,6 +285,25 @@ public final class KinSelectionExperiment implements Experiment<KinSelectionExpe
             );
         }
 
+        private String describeShortcut(FixationEvent event) {
+            int remaining = parameters.generations() - event.simulatedGenerations();
+            if (event.kind() == FixationEvent.Kind.FIXATION) {
+                String strategyLabel = event.fixedStrategy() == Strategy.ALTRUIST ? "利他者" : "自私者";
+                if (event.policy() == FixationPolicy.STOP_AT_FIXATION) {
+                    return String.format("- 捷径：第 %d 代族群已全部变为%s，无突变时这是吸收态，模拟就此停止，省去剩余 %d 代。",
+                            event.generation(), strategyLabel, remaining);
+                }
+                return String.format("- 捷径：第 %d 代族群已全部变为%s，此后状态不再变化，剩余 %d 代按吸收态直接补齐。",
+                        event.generation(), strategyLabel, remaining);
+            }
+            if (event.policy() == FixationPolicy.STOP_AT_FIXATION) {
+                return String.format("- 捷径：第 %d 代利他者占比稳定在 %.1f%% 附近（突变—选择平衡），模拟就此停止，省去剩余 %d 代。",
+                        event.generation(), percentage(event.altruistShare()), remaining);
+            }
+            return String.format("- 捷径：第 %d 代利他者占比稳定在 %.1f%% 附近（突变—选择平衡），剩余 %d 代交给家庭直方图聚合引擎快进。",
+                    event.generation(), percentage(event.altruistShare()), remaining);
+        }
+
         public SimulationResult simulationResult() {
             return simulationResult;
         }
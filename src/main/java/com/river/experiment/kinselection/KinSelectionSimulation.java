@@ -1,10 +1,14 @@
 package com.river.experiment.kinselection;
 
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+
+import com.river.experiment.core.ExecutionMode;
+import com.river.experiment.core.RandomStreams;
 
 /**
  * 核心模拟器，实现基于汉密尔顿框架的亲缘选择动力学。
@@ -12,23 +16,215 @@ import java.util.Random;
 public final class KinSelectionSimulation {
 
     private static final Strategy[] STRATEGIES = Strategy.values();
+    private static final int FAST_FORWARD_STREAM = -2;
 
     private final SimulationParameters parameters;
+    private final EngineOptions options;
+    private final long seed;
     private final Random random;
+    private final StrategyTotals totals = new StrategyTotals();
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private final ParentSampler parentSampler;
     private List<Agent> population;
+    private ColumnarPopulation columns;
+    private double[] inclusiveFitnessBuffer;
+    private ParallelGenerationKernel parallelKernel;
+    private FamilyHistogramPopulation histogram;
+    private PedigreeRelatedness pedigree;
 
     public KinSelectionSimulation(SimulationParameters parameters, long seed) {
+        this(parameters, seed, EngineOptions.defaults());
+    }
+
+    public KinSelectionSimulation(SimulationParameters parameters, long seed, EngineOptions options) {
         this.parameters = parameters;
+        this.options = Objects.requireNonNull(options, "options");
+        this.seed = seed;
         this.random = new Random(seed);
-        initializePopulation();
+        if (parameters.relatednessMode() == RelatednessMode.PEDIGREE
+                && (options.backend() != PopulationBackend.COLUMNAR
+                || options.execution() != ExecutionMode.SEQUENTIAL
+                || options.fusedGeneration())) {
+            throw new IllegalArgumentException("谱系相关模式仅支持单线程、非融合的列式存储。");
+        }
+        if (parameters.relatednessMode() == RelatednessMode.PEDIGREE
+                && options.fixationPolicy() == FixationPolicy.FAST_FORWARD) {
+            // 快进依赖常数相关系数的家庭直方图引擎，固定后谱系相关系数也仍在变化，无法精确复制统计
+            throw new IllegalArgumentException("谱系相关模式不支持快进，请使用 RUN_ALL 或 STOP_AT_FIXATION。");
+        }
+        if (options.execution() == ExecutionMode.DETERMINISTIC_PARALLEL) {
+            if (options.backend() != PopulationBackend.COLUMNAR) {
+                throw new IllegalArgumentException("确定性并行模式仅支持列式存储。");
+            }
+            this.parentSampler = null;
+            parallelKernel = new ParallelGenerationKernel(parameters, options, seed);
+            return;
+        }
+        if (options.fusedGeneration() && options.backend() != PopulationBackend.COLUMNAR) {
+            throw new IllegalArgumentException("融合单遍内核仅支持列式存储。");
+        }
+        if (options.backend() == PopulationBackend.FAMILY_HISTOGRAM) {
+            if (options.parentSelection() == ParentSelection.SYSTEMATIC) {
+                throw new IllegalArgumentException("家庭直方图引擎按独立抽样繁殖，不支持系统重抽样。");
+            }
+            this.parentSampler = null;
+            histogram = new FamilyHistogramPopulation(parameters);
+            histogram.initialize(random);
+            return;
+        }
+        this.parentSampler = new ParentSampler(options.parentSelection(), parameters.populationSize());
+        if (options.backend() == PopulationBackend.COLUMNAR) {
+            columns = ColumnarPopulation.initialize(parameters, random, !options.fusedGeneration());
+            if (parameters.relatednessMode() == RelatednessMode.PEDIGREE) {
+                pedigree = new PedigreeRelatedness(
+                        parameters.familiesPerGeneration(),
+                        parameters.familySize(),
+                        parameters.relatednessWithinFamily()
+                );
+            }
+        } else {
+            inclusiveFitnessBuffer = new double[parameters.populationSize()];
+            initializePopulation();
+        }
+    }
+
+    /**
+     * 注册监听器，每代统计产出后按注册顺序回调。
+     */
+    public void addListener(GenerationListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
     }
 
     public SimulationResult run() {
-        List<GenerationStats> generations = new ArrayList<>(parameters.generations());
-        for (int generationIndex = 0; generationIndex < parameters.generations(); generationIndex++) {
-            generations.add(runSingleGeneration(generationIndex));
+        return run(StatsRetention.keepAll());
+    }
+
+    /**
+     * 运行全部代数，统计逐代推送给监听器，结果中只保留 {@code retention} 选中的代。
+     * 按 {@link EngineOptions#fixationPolicy()} 在吸收态或准平稳态处停止或快进。
+     */
+    public SimulationResult run(StatsRetention retention) {
+        StatsRetention.Retainer retainer = retention.newRetainer(parameters.generations());
+        FixationMonitor monitor = options.fixationPolicy() == FixationPolicy.RUN_ALL
+                ? null
+                : new FixationMonitor(options.fixationPolicy(), parameters, canShortcutQuasiStationary());
+        ForkJoinPool pool = parallelKernel == null ? null : new ForkJoinPool(options.parallelism());
+        try {
+            if (pool != null) {
+                parallelKernel.initialize(pool);
+            }
+            GenerationStats last = null;
+            FixationEvent fixation = null;
+            int completed = 0;
+            while (completed < parameters.generations()) {
+                last = pool == null
+                        ? runSingleGeneration(completed)
+                        : parallelKernel.runGeneration(pool, completed);
+                publish(last, retainer);
+                completed++;
+                fixation = monitor == null ? null : monitor.observe(last);
+                if (fixation != null) {
+                    if (options.fixationPolicy() == FixationPolicy.FAST_FORWARD) {
+                        last = fastForward(fixation, last, pool != null, retainer);
+                        completed = parameters.generations();
+                    }
+                    break;
+                }
+            }
+            return new SimulationResult(retainer.retained(), last, completed, fixation);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
         }
-        return new SimulationResult(generations);
+    }
+
+    /**
+     * 推进一代并返回统计，供岛屿模型在迁移屏障之间逐代驱动；不做固定检测，也不通知监听器。
+     * 仅支持单线程的对象或列式存储。
+     */
+    GenerationStats step(int generationIndex) {
+        return runSingleGeneration(generationIndex);
+    }
+
+    Strategy strategyAt(int index) {
+        if (columns != null) {
+            return STRATEGIES[columns.strategyAt(index)];
+        }
+        return population.get(index).strategy();
+    }
+
+    /**
+     * 用迁入者替换指定位置的个体，家庭归属由位置决定。
+     */
+    void replaceStrategy(int index, Strategy strategy) {
+        if (columns != null) {
+            columns.setStrategy(index, (byte) strategy.ordinal());
+            return;
+        }
+        population.set(index, new Agent(strategy, index / parameters.familySize()));
+    }
+
+    private void publish(GenerationStats stats, StatsRetention.Retainer retainer) {
+        retainer.onGeneration(stats);
+        for (GenerationListener listener : listeners) {
+            listener.onGeneration(stats);
+        }
+    }
+
+    /**
+     * 准平稳态快进要借助家庭直方图引擎：已是直方图存储时无需快进，系统重抽样则无法等价转换。
+     */
+    private boolean canShortcutQuasiStationary() {
+        if (options.fixationPolicy() == FixationPolicy.STOP_AT_FIXATION) {
+            return true;
+        }
+        return histogram == null && options.parentSelection() != ParentSelection.SYSTEMATIC;
+    }
+
+    private GenerationStats fastForward(FixationEvent fixation,
+                                        GenerationStats last,
+                                        boolean parallel,
+                                        StatsRetention.Retainer retainer) {
+        int from = fixation.generation() + 1;
+        if (fixation.kind() == FixationEvent.Kind.FIXATION) {
+            for (int generationIndex = from; generationIndex < parameters.generations(); generationIndex++) {
+                last = last.atGeneration(generationIndex);
+                publish(last, retainer);
+            }
+            return last;
+        }
+        FamilyHistogramPopulation aggregate = new FamilyHistogramPopulation(parameters);
+        aggregate.load(currentFamilyHistogram());
+        RandomGenerator aggregateRandom = parallel
+                ? RandomStreams.stream(seed, from, FAST_FORWARD_STREAM)
+                : random;
+        for (int generationIndex = from; generationIndex < parameters.generations(); generationIndex++) {
+            last = aggregate.runGeneration(generationIndex, aggregateRandom);
+            publish(last, retainer);
+        }
+        return last;
+    }
+
+    private long[] currentFamilyHistogram() {
+        long[] familyHistogram = new long[parameters.familySize() + 1];
+        if (parallelKernel != null) {
+            parallelKernel.countFamilies(familyHistogram);
+        } else if (columns != null) {
+            columns.countFamilies(familyHistogram);
+        } else {
+            int familySize = parameters.familySize();
+            for (int start = 0; start < population.size(); start += familySize) {
+                int altruists = 0;
+                for (int i = start; i < start + familySize; i++) {
+                    if (population.get(i).strategy() == Strategy.ALTRUIST) {
+                        altruists++;
+                    }
+                }
+                familyHistogram[altruists]++;
+            }
+        }
+        return familyHistogram;
     }
 
     private void initializePopulation() {
@@ -43,14 +239,58 @@ public final class KinSelectionSimulation {
     }
 
     private GenerationStats runSingleGeneration(int generationIndex) {
+        if (histogram != null) {
+            return histogram.runGeneration(generationIndex, random);
+        }
+        if (columns != null) {
+            return runColumnarGeneration(generationIndex);
+        }
         resetAgents();
         List<List<Agent>> families = collectFamilies();
-        playKinInteractions(families);
+        if (options.interactionKernel() == InteractionKernel.FAMILY_COUNT) {
+            playFamilyCountInteractions(families);
+        } else {
+            playKinInteractions(families);
+        }
         GenerationStats stats = collectGenerationStats(generationIndex);
         reproduceNextGeneration();
         return stats;
     }
 
+    private GenerationStats runColumnarGeneration(int generationIndex) {
+        if (options.fusedGeneration()) {
+            return runFusedGeneration(generationIndex);
+        }
+        columns.resetForGeneration(parameters.baseFitness());
+        if (options.interactionKernel() == InteractionKernel.FAMILY_COUNT) {
+            columns.playFamilyCountInteractions(parameters.benefit(), parameters.cost());
+        } else {
+            columns.playKinInteractions(parameters.benefit(), parameters.cost());
+        }
+        totals.reset();
+        if (pedigree != null) {
+            columns.finalizeFitness(pedigree, parameters.benefit(), totals);
+            GenerationStats stats = totals.toGenerationStats(generationIndex);
+            columns.reproduce(parentSampler, random, parameters.mutationRate(), pedigree);
+            return stats;
+        }
+        columns.finalizeFitness(parameters.relatednessWithinFamily(), totals);
+        GenerationStats stats = totals.toGenerationStats(generationIndex);
+        columns.reproduce(parentSampler, random, parameters.mutationRate());
+        return stats;
+    }
+
+    private GenerationStats runFusedGeneration(int generationIndex) {
+        int families = columns.familyCount();
+        totals.reset();
+        columns.fusedSweep(0, families, parameters, totals, parentSampler.cumulativeWeights());
+        GenerationStats stats = totals.toGenerationStats(generationIndex);
+        parentSampler.prepareFromCumulative(columns.size(), families, random);
+        columns.breedFamilies(0, families, parentSampler, random, parameters.mutationRate());
+        columns.swapGenerations();
+        return stats;
+    }
+
     private void resetAgents() {
         for (Agent agent : population) {
             agent.resetForGeneration(parameters.baseFitness());
@@ -90,50 +330,56 @@ public final class KinSelectionSimulation {
         }
     }
 
-    private GenerationStats collectGenerationStats(int generationIndex) {
-        EnumMap<Strategy, RunningTotals> totals = new EnumMap<>(Strategy.class);
-        for (Strategy strategy : STRATEGIES) {
-            totals.put(strategy, new RunningTotals());
+    private void playFamilyCountInteractions(List<List<Agent>> families) {
+        for (List<Agent> family : families) {
+            if (family.size() <= 1) {
+                continue;
+            }
+            int altruists = 0;
+            for (Agent agent : family) {
+                if (agent.strategy() == Strategy.ALTRUIST) {
+                    altruists++;
+                }
+            }
+            if (altruists == 0) {
+                continue;
+            }
+            double sharePerRelative = parameters.benefit() / (family.size() - 1);
+            for (Agent agent : family) {
+                if (agent.strategy() == Strategy.ALTRUIST) {
+                    agent.addDirectFitness(-parameters.cost());
+                    agent.addBenefitGiven(parameters.benefit());
+                    agent.addBenefitReceived((altruists - 1) * sharePerRelative);
+                } else {
+                    agent.addBenefitReceived(altruists * sharePerRelative);
+                }
+            }
         }
+    }
+
+    private GenerationStats collectGenerationStats(int generationIndex) {
+        totals.reset();
         for (Agent agent : population) {
             agent.finalizeFitness(parameters.relatednessWithinFamily());
-            RunningTotals totalsForStrategy = totals.get(agent.strategy());
-            totalsForStrategy.count++;
-            totalsForStrategy.direct += agent.directFitness();
-            totalsForStrategy.inclusive += agent.inclusiveFitness();
-            totalsForStrategy.given += agent.benefitGiven();
-            totalsForStrategy.received += agent.benefitReceived();
-        }
-        EnumMap<Strategy, StrategySnapshot> snapshots = new EnumMap<>(Strategy.class);
-        for (Map.Entry<Strategy, RunningTotals> entry : totals.entrySet()) {
-            Strategy strategy = entry.getKey();
-            RunningTotals running = entry.getValue();
-            if (running.count == 0) {
-                snapshots.put(strategy, new StrategySnapshot(strategy, 0, 0, 0, 0, 0));
-            } else {
-                snapshots.put(strategy, new StrategySnapshot(
-                        strategy,
-                        running.count,
-                        running.direct / running.count,
-                        running.inclusive / running.count,
-                        running.given / running.count,
-                        running.received / running.count
-                ));
-            }
+            totals.add(
+                    agent.strategy().ordinal(),
+                    agent.directFitness(),
+                    agent.inclusiveFitness(),
+                    agent.benefitGiven(),
+                    agent.benefitReceived()
+            );
         }
-        return new GenerationStats(generationIndex, snapshots);
+        return totals.toGenerationStats(generationIndex);
     }
 
     private void reproduceNextGeneration() {
-        double totalWeight = population.stream()
-                .mapToDouble(this::reproductiveWeight)
-                .sum();
-        if (totalWeight <= 0) {
-            totalWeight = population.size();
+        for (int i = 0; i < population.size(); i++) {
+            inclusiveFitnessBuffer[i] = population.get(i).inclusiveFitness();
         }
+        parentSampler.prepare(inclusiveFitnessBuffer, population.size(), parameters.familiesPerGeneration(), random);
         List<Agent> newPopulation = new ArrayList<>(population.size());
         for (int familyId = 0; familyId < parameters.familiesPerGeneration(); familyId++) {
-            Strategy parentStrategy = selectParent(totalWeight).strategy();
+            Strategy parentStrategy = population.get(parentSampler.next(random)).strategy();
             for (int memberIndex = 0; memberIndex < parameters.familySize(); memberIndex++) {
                 Strategy childStrategy = maybeMutate(parentStrategy);
                 newPopulation.add(new Agent(childStrategy, familyId));
@@ -148,29 +394,4 @@ public final class KinSelectionSimulation {
         }
         return strategy;
     }
-
-    private Agent selectParent(double totalWeight) {
-        double threshold = random.nextDouble() * totalWeight;
-        double cumulative = 0.0;
-        for (Agent agent : population) {
-            cumulative += reproductiveWeight(agent);
-            if (cumulative >= threshold) {
-                return agent;
-            }
-        }
-        return population.get(population.size() - 1);
-    }
-
-    private double reproductiveWeight(Agent agent) {
-        double weight = agent.inclusiveFitness();
-        return weight > 0 ? weight : 1e-6;
-    }
-
-    private static final class RunningTotals {
-        int count;
-        double direct;
-        double inclusive;
-        double given;
-        double received;
-    }
 }
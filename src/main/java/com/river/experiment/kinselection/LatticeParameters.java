@@ -0,0 +1,98 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 二维格子版亲缘选择的不可变参数。格子首尾相接（环面），每个格点一名个体，
+ * 个体与其 8 个邻居组成以自己为中心的 3×3 “家庭”。
+ */
+public final class LatticeParameters {
+
+    private final int width;
+    private final int height;
+    private final int generations;
+    private final double baseFitness;
+    private final double benefit;
+    private final double cost;
+    private final double mutationRate;
+    private final double relatedness;
+    private final double initialAltruistShare;
+
+    public LatticeParameters(int width,
+                             int height,
+                             int generations,
+                             double baseFitness,
+                             double benefit,
+                             double cost,
+                             double mutationRate,
+                             double relatedness,
+                             double initialAltruistShare) {
+        if (width <= 0 || width % Long.SIZE != 0) {
+            throw new IllegalArgumentException("格子宽度必须是 64 的正整数倍。");
+        }
+        if (height < 3) {
+            throw new IllegalArgumentException("格子高度至少为 3。");
+        }
+        if (generations <= 0) {
+            throw new IllegalArgumentException("模拟代数必须为正数。");
+        }
+        if (baseFitness <= 0) {
+            throw new IllegalArgumentException("基础适合度必须为正数。");
+        }
+        if (benefit <= 0 || cost <= 0) {
+            throw new IllegalArgumentException("收益与成本必须为正数。");
+        }
+        if (mutationRate < 0 || mutationRate > 1) {
+            throw new IllegalArgumentException("突变率需介于 0 与 1 之间。");
+        }
+        if (relatedness < 0 || relatedness > 1) {
+            throw new IllegalArgumentException("相关系数需介于 0 与 1 之间。");
+        }
+        if (initialAltruistShare < 0 || initialAltruistShare > 1) {
+            throw new IllegalArgumentException("初始利他者占比需介于 0 与 1 之间。");
+        }
+        this.width = width;
+        this.height = height;
+        this.generations = generations;
+        this.baseFitness = baseFitness;
+        this.benefit = benefit;
+        this.cost = cost;
+        this.mutationRate = mutationRate;
+        this.relatedness = relatedness;
+        this.initialAltruistShare = initialAltruistShare;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int generations() {
+        return generations;
+    }
+
+    public double baseFitness() {
+        return baseFitness;
+    }
+
+    public double benefit() {
+        return benefit;
+    }
+
+    public double cost() {
+        return cost;
+    }
+
+    public double mutationRate() {
+        return mutationRate;
+    }
+
+    public double relatedness() {
+        return relatedness;
+    }
+
+    public double initialAltruistShare() {
+        return initialAltruistShare;
+    }
+}
@@ -0,0 +1,292 @@
+package com.river.experiment.kinselection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import com.river.experiment.core.ChunkAction;
+import com.river.experiment.core.RandomStreams;
+
+/**
+ * 二维环面格子上的亲缘选择：家庭不再是抽象的下标区间，而是以个体为中心的 3×3 邻域，
+ * 子代只在本地扩散，用于研究“黏性族群”中由空间聚集产生的亲缘效应。
+ * <ol>
+ *     <li>利他者付出成本 c，把收益 b 平均分给 8 个邻居；</li>
+ *     <li>适合度只取决于自身策略与利他邻居数，与家庭模型的闭式结果一致（家庭规模 9）；</li>
+ *     <li>下一代每个格点的亲本从其 3×3 邻域（含自身）按繁殖权重抽取，再按突变率突变。</li>
+ * </ol>
+ * 策略按位压缩在 {@code long[]} 中（1 表示利他者），利他邻居数用位切片加法器一次算 64 个格点。
+ * 行按固定高度切成条带在 ForkJoinPool 上并行；每个条带额外重算上下各一行“光环”，
+ * 只读取当前代网格、写入自己的下一代行，条带之间无需同步。条带划分与随机流只取决于参数与种子，
+ * 结果与线程数无关。
+ */
+public final class LatticeSimulation {
+
+    private static final int STRIPE_ROWS = 64;
+    private static final int NEIGHBOURS = 8;
+    private static final int ALTRUIST_CLASS = 1 << 4;
+    private static final int CLASS_COUNT = 2 * ALTRUIST_CLASS;
+    private static final int INITIALIZATION_GENERATION = -1;
+
+    private final LatticeParameters parameters;
+    private final long seed;
+    private final int parallelism;
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final int stripeCount;
+    private final double[] altruistWeight = new double[CLASS_COUNT];
+    private final double[] totalWeight = new double[CLASS_COUNT];
+    private final long[][] stripeBins;
+    private final byte[][] stripeClasses;
+    private final double[][] stripeColumnAltruist;
+    private final double[][] stripeColumnTotal;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private long[] grid;
+    private long[] nextGrid;
+
+    public LatticeSimulation(LatticeParameters parameters, long seed) {
+        this(parameters, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism 线程数，不影响结果
+     */
+    public LatticeSimulation(LatticeParameters parameters, long seed, int parallelism) {
+        this.parameters = Objects.requireNonNull(parameters, "parameters");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.width = parameters.width();
+        this.height = parameters.height();
+        this.wordsPerRow = width / Long.SIZE;
+        this.stripeCount = (height + STRIPE_ROWS - 1) / STRIPE_ROWS;
+        this.grid = new long[wordsPerRow * height];
+        this.nextGrid = new long[wordsPerRow * height];
+        this.stripeBins = new long[stripeCount][CLASS_COUNT];
+        this.stripeClasses = new byte[stripeCount][];
+        this.stripeColumnAltruist = new double[stripeCount][width + 2];
+        this.stripeColumnTotal = new double[stripeCount][width + 2];
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            int rows = stripeEnd(stripe) - stripeStart(stripe);
+            stripeClasses[stripe] = new byte[(rows + 2) * (width + 2)];
+        }
+        double share = parameters.benefit() / NEIGHBOURS;
+        for (int neighbours = 0; neighbours <= NEIGHBOURS; neighbours++) {
+            double selfishDirect = parameters.baseFitness() + neighbours * share;
+            double altruistDirect = selfishDirect - parameters.cost();
+            double altruistInclusive = altruistDirect + parameters.relatedness() * parameters.benefit();
+            double weight = ParentSampler.reproductiveWeight(altruistInclusive);
+            altruistWeight[ALTRUIST_CLASS | neighbours] = weight;
+            totalWeight[ALTRUIST_CLASS | neighbours] = weight;
+            totalWeight[neighbours] = ParentSampler.reproductiveWeight(selfishDirect);
+        }
+    }
+
+    public void addListener(GenerationListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public boolean isAltruist(int x, int y) {
+        return (grid[y * wordsPerRow + (x >>> 6)] >>> (x & 63) & 1L) != 0;
+    }
+
+    public SimulationResult run() {
+        return run(StatsRetention.keepAll());
+    }
+
+    public SimulationResult run(StatsRetention retention) {
+        StatsRetention.Retainer retainer = retention.newRetainer(parameters.generations());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ChunkAction.forEach(pool, stripeCount, this::randomizeStripe);
+            GenerationStats last = null;
+            for (int generationIndex = 0; generationIndex < parameters.generations(); generationIndex++) {
+                int generation = generationIndex;
+                ChunkAction.forEach(pool, stripeCount, stripe -> stepStripe(stripe, generation));
+                last = collectStats(generationIndex);
+                long[] previous = grid;
+                grid = nextGrid;
+                nextGrid = previous;
+                retainer.onGeneration(last);
+                for (GenerationListener listener : listeners) {
+                    listener.onGeneration(last);
+                }
+            }
+            return new SimulationResult(retainer.retained(), last, parameters.generations(), null);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int stripeStart(int stripe) {
+        return stripe * STRIPE_ROWS;
+    }
+
+    private int stripeEnd(int stripe) {
+        return Math.min(height, (stripe + 1) * STRIPE_ROWS);
+    }
+
+    private void randomizeStripe(int stripe) {
+        SplittableRandom random = RandomStreams.stream(seed, INITIALIZATION_GENERATION, stripe);
+        double share = parameters.initialAltruistShare();
+        int from = stripeStart(stripe) * wordsPerRow;
+        int to = stripeEnd(stripe) * wordsPerRow;
+        for (int word = from; word < to; word++) {
+            long bits = 0L;
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                if (random.nextDouble() < share) {
+                    bits |= 1L << bit;
+                }
+            }
+            grid[word] = bits;
+        }
+    }
+
+    /**
+     * 先为条带内各行及上下光环行算出每个格点的类别（策略位 + 利他邻居数），再逐格抽亲本写入下一代。
+     */
+    private void stepStripe(int stripe, int generationIndex) {
+        int start = stripeStart(stripe);
+        int end = stripeEnd(stripe);
+        byte[] classes = stripeClasses[stripe];
+        int stride = width + 2;
+        for (int row = start - 1; row <= end; row++) {
+            classifyRow(Math.floorMod(row, height), classes, (row - start + 1) * stride);
+        }
+
+        long[] bins = stripeBins[stripe];
+        Arrays.fill(bins, 0L);
+        SplittableRandom random = RandomStreams.stream(seed, generationIndex, stripe);
+        double mutationRate = parameters.mutationRate();
+        double[] columnAltruist = stripeColumnAltruist[stripe];
+        double[] columnTotal = stripeColumnTotal[stripe];
+        for (int row = start; row < end; row++) {
+            int centre = (row - start + 1) * stride;
+            int above = centre - stride;
+            int below = centre + stride;
+            // 先按列合并上中下三格的权重，3×3 邻域之和即相邻三列之和
+            for (int column = 0; column < stride; column++) {
+                int a = classes[above + column];
+                int c = classes[centre + column];
+                int b = classes[below + column];
+                columnAltruist[column] = altruistWeight[a] + altruistWeight[c] + altruistWeight[b];
+                columnTotal[column] = totalWeight[a] + totalWeight[c] + totalWeight[b];
+            }
+            int out = row * wordsPerRow;
+            for (int word = 0; word < wordsPerRow; word++) {
+                long bits = 0L;
+                int base = word * Long.SIZE;
+                for (int bit = 0; bit < Long.SIZE; bit++) {
+                    int x = base + bit;
+                    bins[classes[centre + x + 1]]++;
+                    double altruistSum = columnAltruist[x] + columnAltruist[x + 1] + columnAltruist[x + 2];
+                    double sum = columnTotal[x] + columnTotal[x + 1] + columnTotal[x + 2];
+                    boolean altruist;
+                    if (altruistSum == 0.0) {
+                        altruist = false;
+                    } else if (altruistSum == sum) {
+                        altruist = true;
+                    } else {
+                        altruist = random.nextDouble() * sum < altruistSum;
+                    }
+                    if (mutationRate > 0.0 && random.nextDouble() < mutationRate) {
+                        altruist = random.nextBoolean();
+                    }
+                    if (altruist) {
+                        bits |= 1L << bit;
+                    }
+                }
+                nextGrid[out + word] = bits;
+            }
+        }
+    }
+
+    /**
+     * 用位切片加法器一次数出 64 个格点的利他邻居数（0..8，四个位平面），
+     * 展开为每格一个字节，并在行首尾各补一格环绕值。
+     */
+    private void classifyRow(int row, byte[] classes, int offset) {
+        int up = Math.floorMod(row - 1, height) * wordsPerRow;
+        int middle = row * wordsPerRow;
+        int down = Math.floorMod(row + 1, height) * wordsPerRow;
+        for (int word = 0; word < wordsPerRow; word++) {
+            int previous = word == 0 ? wordsPerRow - 1 : word - 1;
+            int next = word == wordsPerRow - 1 ? 0 : word + 1;
+            long u = grid[up + word];
+            long m = grid[middle + word];
+            long d = grid[down + word];
+            // 第 j 位左移后得到第 j-1 列（左邻），右移得到第 j+1 列（右邻），跨字的一位从相邻字补齐
+            long ul = (u << 1) | (grid[up + previous] >>> 63);
+            long ur = (u >>> 1) | (grid[up + next] << 63);
+            long ml = (m << 1) | (grid[middle + previous] >>> 63);
+            long mr = (m >>> 1) | (grid[middle + next] << 63);
+            long dl = (d << 1) | (grid[down + previous] >>> 63);
+            long dr = (d >>> 1) | (grid[down + next] << 63);
+
+            long s1 = ul ^ u ^ ur;
+            long c1 = (ul & u) | (ur & (ul ^ u));
+            long s2 = ml ^ mr ^ dl;
+            long c2 = (ml & mr) | (dl & (ml ^ mr));
+            long s3 = d ^ dr;
+            long c3 = d & dr;
+            long ones = s1 ^ s2 ^ s3;
+            long c4 = (s1 & s2) | (s3 & (s1 ^ s2));
+            long t = c1 ^ c2 ^ c3;
+            long k1 = (c1 & c2) | (c3 & (c1 ^ c2));
+            long twos = t ^ c4;
+            long k2 = t & c4;
+            long fours = k1 ^ k2;
+            long eights = k1 & k2;
+
+            int base = offset + 1 + word * Long.SIZE;
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                int count = (int) ((ones >>> bit & 1L)
+                        | (twos >>> bit & 1L) << 1
+                        | (fours >>> bit & 1L) << 2
+                        | (eights >>> bit & 1L) << 3);
+                classes[base + bit] = (byte) ((int) (m >>> bit & 1L) << 4 | count);
+            }
+        }
+        classes[offset] = classes[offset + width];
+        classes[offset + width + 1] = classes[offset + 1];
+    }
+
+    private GenerationStats collectStats(int generationIndex) {
+        long[] bins = new long[CLASS_COUNT];
+        for (long[] stripe : stripeBins) {
+            for (int i = 0; i < CLASS_COUNT; i++) {
+                bins[i] += stripe[i];
+            }
+        }
+        double share = parameters.benefit() / NEIGHBOURS;
+        StrategyTotals totals = new StrategyTotals();
+        for (int neighbours = 0; neighbours <= NEIGHBOURS; neighbours++) {
+            double received = neighbours * share;
+            double selfishDirect = parameters.baseFitness() + received;
+            double altruistDirect = selfishDirect - parameters.cost();
+            totals.addMembers(
+                    Strategy.ALTRUIST.ordinal(),
+                    Math.toIntExact(bins[ALTRUIST_CLASS | neighbours]),
+                    altruistDirect,
+                    altruistDirect + parameters.relatedness() * parameters.benefit(),
+                    parameters.benefit(),
+                    received
+            );
+            totals.addMembers(
+                    Strategy.SELFISH.ordinal(),
+                    Math.toIntExact(bins[neighbours]),
+                    selfishDirect,
+                    selfishDirect,
+                    0.0,
+                    received
+            );
+        }
+        return totals.toGenerationStats(generationIndex);
+    }
+}
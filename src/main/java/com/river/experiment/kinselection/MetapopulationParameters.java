@@ -0,0 +1,42 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 岛屿模型的结构参数：岛（deme）的数量、迁移间隔与每次迁出的个体数。
+ * 每个岛内部的模型参数仍由 {@link SimulationParameters} 描述。
+ */
+public final class MetapopulationParameters {
+
+    private final int demeCount;
+    private final int migrationInterval;
+    private final int migrantsPerDeme;
+
+    public MetapopulationParameters(int demeCount, int migrationInterval, int migrantsPerDeme) {
+        if (demeCount <= 0) {
+            throw new IllegalArgumentException("岛的数量必须为正数。");
+        }
+        if (migrationInterval <= 0) {
+            throw new IllegalArgumentException("迁移间隔必须为正数。");
+        }
+        if (migrantsPerDeme < 0) {
+            throw new IllegalArgumentException("每岛迁出人数不能为负数。");
+        }
+        this.demeCount = demeCount;
+        this.migrationInterval = migrationInterval;
+        this.migrantsPerDeme = migrantsPerDeme;
+    }
+
+    public int demeCount() {
+        return demeCount;
+    }
+
+    /**
+     * 每隔多少代做一次迁移，各岛只在迁移时同步。
+     */
+    public int migrationInterval() {
+        return migrationInterval;
+    }
+
+    public int migrantsPerDeme() {
+        return migrantsPerDeme;
+    }
+}
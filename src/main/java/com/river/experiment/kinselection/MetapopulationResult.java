@@ -0,0 +1,72 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 岛屿模型结果：全局统计按 {@link StatsRetention} 保留，各岛只在每次迁移屏障处记录利他者占比，
+ * 不保存任何岛的完整历史。
+ */
+public final class MetapopulationResult {
+
+    private final SimulationResult global;
+    private final int demeCount;
+    private final int[] sampleGenerations;
+    private final float[] demeShares;
+
+    MetapopulationResult(SimulationResult global, int demeCount, int[] sampleGenerations, float[] demeShares) {
+        this.global = global;
+        this.demeCount = demeCount;
+        this.sampleGenerations = sampleGenerations;
+        this.demeShares = demeShares;
+    }
+
+    /**
+     * 把所有岛合并为一个族群后的逐代统计。
+     */
+    public SimulationResult global() {
+        return global;
+    }
+
+    public int demeCount() {
+        return demeCount;
+    }
+
+    public int sampleCount() {
+        return sampleGenerations.length;
+    }
+
+    /**
+     * 第 {@code sample} 个采样点对应的代数（每轮迁移前的最后一代）。
+     */
+    public int sampleGeneration(int sample) {
+        return sampleGenerations[sample];
+    }
+
+    public double demeShare(int deme, int sample) {
+        return demeShares[sample * demeCount + deme];
+    }
+
+    public double[] demeShareSeries(int deme) {
+        double[] series = new double[sampleGenerations.length];
+        for (int sample = 0; sample < series.length; sample++) {
+            series[sample] = demeShare(deme, sample);
+        }
+        return series;
+    }
+
+    /**
+     * 采样点处各岛利他者占比的方差，衡量岛间分化程度。
+     */
+    public double betweenDemeShareVariance(int sample) {
+        int offset = sample * demeCount;
+        double mean = 0.0;
+        for (int deme = 0; deme < demeCount; deme++) {
+            mean += demeShares[offset + deme];
+        }
+        mean /= demeCount;
+        double variance = 0.0;
+        for (int deme = 0; deme < demeCount; deme++) {
+            double delta = demeShares[offset + deme] - mean;
+            variance += delta * delta;
+        }
+        return variance / demeCount;
+    }
+}
@@ -0,0 +1,257 @@
+package com.river.experiment.kinselection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.river.experiment.core.ExecutionMode;
+import com.river.experiment.core.RandomStreams;
+
+/**
+ * 岛屿模型：多个 {@link KinSelectionSimulation} 作为岛在各自的工作线程上独立演化，
+ * 每隔 {@link MetapopulationParameters#migrationInterval()} 代在屏障处交换迁移者。
+ * <p>
+ * 每轮迁移抽取一个公共位移 s，第 d 个岛随机选出若干个体迁往第 (d + s) 个岛，
+ * 迁入者占据迁出者空出的位置，各岛规模保持不变。迁移者经 {@link MigrantQueue} 传递，
+ * 岛与岛之间除屏障外不加锁。各岛种子、迁移位移与迁出位置都由 (种子, 轮次, 岛序号) 派生，
+ * 全局统计在屏障处按岛序号合并，因此结果与线程数无关。
+ */
+public final class MetapopulationSimulation {
+
+    private static final Strategy[] STRATEGIES = Strategy.values();
+    private static final int DEME_SEED_STREAM = -1;
+    private static final int MIGRATION_SHIFT_STREAM = -1;
+
+    private final SimulationParameters demeParameters;
+    private final MetapopulationParameters metaParameters;
+    private final long seed;
+    private final int parallelism;
+    private final KinSelectionSimulation[] demes;
+    private final MigrantQueue[] queues;
+    private final int[][] vacatedPositions;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+
+    public MetapopulationSimulation(SimulationParameters demeParameters,
+                                    MetapopulationParameters metaParameters,
+                                    long seed) {
+        this(
+                demeParameters,
+                metaParameters,
+                seed,
+                EngineOptions.defaults().withBackend(PopulationBackend.COLUMNAR),
+                Runtime.getRuntime().availableProcessors()
+        );
+    }
+
+    /**
+     * @param demeOptions 各岛的引擎选项，岛内只支持单线程的对象或列式存储，且不做固定检测
+     * @param parallelism 工作线程数，不影响结果
+     */
+    public MetapopulationSimulation(SimulationParameters demeParameters,
+                                    MetapopulationParameters metaParameters,
+                                    long seed,
+                                    EngineOptions demeOptions,
+                                    int parallelism) {
+        this.demeParameters = Objects.requireNonNull(demeParameters, "demeParameters");
+        this.metaParameters = Objects.requireNonNull(metaParameters, "metaParameters");
+        Objects.requireNonNull(demeOptions, "demeOptions");
+        if (demeParameters.relatednessMode() != RelatednessMode.CONSTANT) {
+            throw new IllegalArgumentException("岛屿模型仅支持常数相关系数。");
+        }
+        if (demeOptions.execution() != ExecutionMode.SEQUENTIAL) {
+            throw new IllegalArgumentException("岛屿模型已按岛并行，岛内只支持单线程执行。");
+        }
+        if (demeOptions.backend() == PopulationBackend.FAMILY_HISTOGRAM) {
+            throw new IllegalArgumentException("岛屿模型需要逐个体交换迁移者，不支持家庭直方图存储。");
+        }
+        if (metaParameters.migrantsPerDeme() > demeParameters.populationSize()) {
+            throw new IllegalArgumentException("每岛迁出人数不能超过岛的人口规模。");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并行线程数必须为正数。");
+        }
+        this.seed = seed;
+        this.parallelism = Math.min(parallelism, metaParameters.demeCount());
+        int demeCount = metaParameters.demeCount();
+        this.demes = new KinSelectionSimulation[demeCount];
+        this.queues = new MigrantQueue[demeCount];
+        this.vacatedPositions = new int[demeCount][metaParameters.migrantsPerDeme()];
+        for (int deme = 0; deme < demeCount; deme++) {
+            long demeSeed = RandomStreams.stream(seed, DEME_SEED_STREAM, deme).nextLong();
+            demes[deme] = new KinSelectionSimulation(demeParameters, demeSeed, demeOptions);
+            queues[deme] = new MigrantQueue(2 * metaParameters.migrantsPerDeme());
+        }
+    }
+
+    /**
+     * 注册全局统计的监听器，在每轮迁移屏障处按代数顺序回调。
+     */
+    public void addListener(GenerationListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public MetapopulationResult run() {
+        return run(StatsRetention.keepAll());
+    }
+
+    public MetapopulationResult run(StatsRetention retention) {
+        int interval = metaParameters.migrationInterval();
+        int rounds = (demeParameters.generations() + interval - 1) / interval;
+        RoundFolder folder = new RoundFolder(retention.newRetainer(demeParameters.generations()), rounds);
+        CyclicBarrier barrier = new CyclicBarrier(parallelism, folder);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> workers = new ArrayList<>(parallelism);
+            for (int worker = 0; worker < parallelism; worker++) {
+                int fromDeme = worker * demes.length / parallelism;
+                int toDeme = (worker + 1) * demes.length / parallelism;
+                workers.add(executor.submit(() -> runWorker(fromDeme, toDeme, rounds, barrier, folder)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("岛屿模型运行被中断。", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("岛屿模型工作线程失败。", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        SimulationResult global = new SimulationResult(
+                folder.retainer.retained(),
+                folder.last,
+                demeParameters.generations(),
+                null
+        );
+        return new MetapopulationResult(global, demes.length, folder.sampleGenerations, folder.demeShares);
+    }
+
+    private void runWorker(int fromDeme, int toDeme, int rounds, CyclicBarrier barrier, RoundFolder folder) {
+        int interval = metaParameters.migrationInterval();
+        int generations = demeParameters.generations();
+        try {
+            for (int round = 0; round < rounds; round++) {
+                int start = round * interval;
+                int end = Math.min(generations, start + interval);
+                for (int deme = fromDeme; deme < toDeme; deme++) {
+                    GenerationStats[] slots = folder.roundStats[deme];
+                    for (int generationIndex = start; generationIndex < end; generationIndex++) {
+                        slots[generationIndex - start] = demes[deme].step(generationIndex);
+                    }
+                }
+                boolean migrate = end < generations
+                        && metaParameters.migrantsPerDeme() > 0
+                        && demes.length > 1;
+                if (migrate) {
+                    int shift = RandomStreams.stream(seed, round, MIGRATION_SHIFT_STREAM).nextInt(1, demes.length);
+                    for (int deme = fromDeme; deme < toDeme; deme++) {
+                        emigrate(deme, (deme + shift) % demes.length, round);
+                    }
+                }
+                barrier.await();
+                if (migrate) {
+                    for (int deme = fromDeme; deme < toDeme; deme++) {
+                        immigrate(deme);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            barrier.reset();
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("岛屿模型的迁移屏障已失效。", e);
+        } catch (RuntimeException e) {
+            barrier.reset();
+            throw e;
+        }
+    }
+
+    /**
+     * 用 Floyd 算法无放回地抽取 {@code migrantsPerDeme} 个不同位置，保证每名迁出者只迁出一次、
+     * 迁入者各自填补不同的空位；去重按已抽位置线性查找，迁移人数通常远小于岛规模。
+     */
+    private void emigrate(int deme, int target, int round) {
+        SplittableRandom random = RandomStreams.stream(seed, round, deme);
+        int[] positions = vacatedPositions[deme];
+        MigrantQueue queue = queues[target];
+        int populationSize = demeParameters.populationSize();
+        for (int i = 0; i < positions.length; i++) {
+            int bound = populationSize - positions.length + i;
+            int position = random.nextInt(bound + 1);
+            if (contains(positions, i, position)) {
+                position = bound;
+            }
+            positions[i] = position;
+            queue.put((byte) demes[deme].strategyAt(position).ordinal());
+        }
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void immigrate(int deme) {
+        int[] positions = vacatedPositions[deme];
+        MigrantQueue queue = queues[deme];
+        for (int position : positions) {
+            demes[deme].replaceStrategy(position, STRATEGIES[queue.take()]);
+        }
+    }
+
+    /**
+     * 屏障动作：由最后到达屏障的线程执行，按岛序号把本轮各岛统计合并为全局统计，并记录各岛占比。
+     */
+    private final class RoundFolder implements Runnable {
+
+        private final StatsRetention.Retainer retainer;
+        private final GenerationStats[][] roundStats;
+        private final int[] sampleGenerations;
+        private final float[] demeShares;
+        private final StrategyTotals totals = new StrategyTotals();
+        private GenerationStats last;
+        private int round;
+
+        RoundFolder(StatsRetention.Retainer retainer, int rounds) {
+            this.retainer = retainer;
+            this.roundStats = new GenerationStats[demes.length][metaParameters.migrationInterval()];
+            this.sampleGenerations = new int[rounds];
+            this.demeShares = new float[rounds * demes.length];
+        }
+
+        @Override
+        public void run() {
+            int start = round * metaParameters.migrationInterval();
+            int end = Math.min(demeParameters.generations(), start + metaParameters.migrationInterval());
+            for (int generationIndex = start; generationIndex < end; generationIndex++) {
+                totals.reset();
+                for (GenerationStats[] slots : roundStats) {
+                    totals.addStats(slots[generationIndex - start]);
+                }
+                last = totals.toGenerationStats(generationIndex);
+                retainer.onGeneration(last);
+                for (GenerationListener listener : listeners) {
+                    listener.onGeneration(last);
+                }
+            }
+            sampleGenerations[round] = end - 1;
+            int offset = round * demes.length;
+            for (int deme = 0; deme < demes.length; deme++) {
+                demeShares[offset + deme] = (float) roundStats[deme][end - 1 - start].share(Strategy.ALTRUIST);
+            }
+            round++;
+        }
+    }
+}
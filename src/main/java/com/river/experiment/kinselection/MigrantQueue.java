@@ -0,0 +1,49 @@
+package com.river.experiment.kinselection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单生产者单消费者的有界无锁环形队列，元素为策略序号。
+ * <p>
+ * 每轮迁移只有一个来源岛写入、目标岛所在线程读取；轮与轮之间由迁移屏障建立先后关系，
+ * 因此跨轮更换生产者仍满足单生产者约束。写满或读空时自旋等待，线程被中断时放弃。
+ */
+final class MigrantQueue {
+
+    private final byte[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    MigrantQueue(int minimumCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, minimumCapacity - 1)) << 1;
+        this.slots = new byte[capacity];
+        this.mask = capacity - 1;
+    }
+
+    void put(byte value) {
+        long position = tail.get();
+        while (position - head.get() == slots.length) {
+            awaitProgress();
+        }
+        slots[(int) (position & mask)] = value;
+        tail.lazySet(position + 1);
+    }
+
+    byte take() {
+        long position = head.get();
+        while (position == tail.get()) {
+            awaitProgress();
+        }
+        byte value = slots[(int) (position & mask)];
+        head.lazySet(position + 1);
+        return value;
+    }
+
+    private static void awaitProgress() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("迁移队列等待被中断。");
+        }
+        Thread.onSpinWait();
+    }
+}
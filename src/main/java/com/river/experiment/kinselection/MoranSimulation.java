@@ -0,0 +1,120 @@
+package com.river.experiment.kinselection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * 世代重叠的 Moran 过程：族群不再整代重建，而是一次替换一户家庭。
+ * <p>
+ * 每个事件先按繁殖权重（包容适合度）从全体个体中抽出一名亲本，再均匀随机选出一户家庭，
+ * 由该亲本的子代整户替换（子代各自独立突变），与 {@link KinSelectionSimulation}
+ * 中“每户由一名亲本创立”的设定一致。每户以单位速率被替换，总事件率恒为家庭数 F，
+ * 因此 F 个事件对应连续时间中的一个单位，即一个“等效代”。
+ * <p>
+ * 状态只记录每户的利他者人数；各户繁殖权重存于树状数组，抽亲本与更新都是 O(log F)，
+ * 家庭组成直方图随事件增量维护，每个等效代按闭式结果输出与其他引擎相同的 {@link GenerationStats}。
+ */
+public final class MoranSimulation {
+
+    private final SimulationParameters parameters;
+    private final FamilyFitness fitness;
+    private final SplittableRandom random;
+    private final int familySize;
+    private final int familyCount;
+    private final int[] altruistsPerFamily;
+    private final long[] familyHistogram;
+    private final double[] familyWeights;
+    private final FenwickTree weights;
+    private final double keepAltruist;
+    private final double becomeAltruist;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private long events;
+
+    public MoranSimulation(SimulationParameters parameters, long seed) {
+        this.parameters = Objects.requireNonNull(parameters, "parameters");
+        if (parameters.relatednessMode() != RelatednessMode.CONSTANT) {
+            throw new IllegalArgumentException("Moran 过程仅支持常数相关系数。");
+        }
+        this.fitness = new FamilyFitness(parameters);
+        this.random = new SplittableRandom(seed);
+        this.familySize = parameters.familySize();
+        this.familyCount = parameters.familiesPerGeneration();
+        this.altruistsPerFamily = new int[familyCount];
+        this.familyHistogram = new long[familySize + 1];
+        this.familyWeights = new double[familySize + 1];
+        for (int k = 0; k <= familySize; k++) {
+            familyWeights[k] = fitness.familyWeight(k);
+        }
+        this.weights = new FenwickTree(familyCount);
+        int strategyCount = Strategy.values().length;
+        this.keepAltruist = 1.0 - parameters.mutationRate() + parameters.mutationRate() / strategyCount;
+        this.becomeAltruist = parameters.mutationRate() / strategyCount;
+        initialize();
+    }
+
+    public void addListener(GenerationListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public SimulationResult run() {
+        return run(StatsRetention.keepAll());
+    }
+
+    /**
+     * 推进 {@code generations} 个等效代，每个等效代开始时输出统计，随后执行 F 个替换事件。
+     */
+    public SimulationResult run(StatsRetention retention) {
+        StatsRetention.Retainer retainer = retention.newRetainer(parameters.generations());
+        GenerationStats last = null;
+        for (int generationIndex = 0; generationIndex < parameters.generations(); generationIndex++) {
+            last = fitness.summarize(generationIndex, familyHistogram);
+            retainer.onGeneration(last);
+            for (GenerationListener listener : listeners) {
+                listener.onGeneration(last);
+            }
+            for (int event = 0; event < familyCount; event++) {
+                replaceFamily();
+            }
+            weights.rebuild();
+        }
+        return new SimulationResult(retainer.retained(), last, parameters.generations(), null);
+    }
+
+    /**
+     * 已执行的替换事件总数。
+     */
+    public long events() {
+        return events;
+    }
+
+    private void initialize() {
+        for (int family = 0; family < familyCount; family++) {
+            int altruists = (int) BinomialSampler.binomial(random, familySize, parameters.initialAltruistShare());
+            altruistsPerFamily[family] = altruists;
+            familyHistogram[altruists]++;
+            weights.set(family, familyWeights[altruists]);
+        }
+        weights.rebuild();
+    }
+
+    private void replaceFamily() {
+        int parentFamily = weights.find(random.nextDouble() * weights.total());
+        int parentAltruists = altruistsPerFamily[parentFamily];
+        double altruistWeight = parentAltruists * fitness.altruistWeight[parentAltruists];
+        boolean altruistParent = random.nextDouble() * familyWeights[parentAltruists] < altruistWeight;
+
+        int replaced = random.nextInt(familyCount);
+        int offspringAltruists = (int) BinomialSampler.binomial(
+                random,
+                familySize,
+                altruistParent ? keepAltruist : becomeAltruist
+        );
+        familyHistogram[altruistsPerFamily[replaced]]--;
+        familyHistogram[offspringAltruists]++;
+        altruistsPerFamily[replaced] = offspringAltruists;
+        weights.set(replaced, familyWeights[offspringAltruists]);
+        events++;
+    }
+}
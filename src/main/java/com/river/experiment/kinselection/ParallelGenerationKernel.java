@@ -0,0 +1,128 @@
+package com.river.experiment.kinselection;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+import com.river.experiment.core.ChunkAction;
+import com.river.experiment.core.RandomStreams;
+
+/**
+ * 确定性并行的单代内核：家庭按固定大小切块，重置、互动、适合度结算与统计在块内完成，
+ * 繁殖权重用“块内前缀和 + 块间偏移”的两遍并行前缀和构建。
+ * <p>
+ * 分块大小只由参数决定，每块的随机流由 (种子, 代数, 块序号) 派生，
+ * 块统计按序号合并，所以任意线程数下结果逐位一致。
+ */
+final class ParallelGenerationKernel {
+
+    private static final int TARGET_AGENTS_PER_CHUNK = 1 << 16;
+    private static final int INITIALIZATION_GENERATION = -1;
+    private static final int GLOBAL_STREAM = -1;
+
+    private final SimulationParameters parameters;
+    private final InteractionKernel interactionKernel;
+    private final boolean fused;
+    private final long seed;
+    private final ColumnarPopulation population;
+    private final ParentSampler sampler;
+    private final int familiesPerChunk;
+    private final int chunkCount;
+    private final StrategyTotals[] chunkTotals;
+    private final double[] chunkWeights;
+    private final StrategyTotals totals = new StrategyTotals();
+
+    ParallelGenerationKernel(SimulationParameters parameters, EngineOptions options, long seed) {
+        this.parameters = parameters;
+        this.interactionKernel = options.interactionKernel();
+        this.fused = options.fusedGeneration();
+        this.seed = seed;
+        this.population = new ColumnarPopulation(parameters.populationSize(), parameters.familySize(), !fused);
+        this.sampler = new ParentSampler(options.parentSelection(), parameters.populationSize());
+        this.familiesPerChunk = Math.max(1, TARGET_AGENTS_PER_CHUNK / parameters.familySize());
+        int families = parameters.familiesPerGeneration();
+        this.chunkCount = (families + familiesPerChunk - 1) / familiesPerChunk;
+        this.chunkTotals = new StrategyTotals[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunkTotals[chunk] = new StrategyTotals();
+        }
+        this.chunkWeights = new double[chunkCount];
+    }
+
+    void initialize(ForkJoinPool pool) {
+        forEachChunk(pool, chunk -> population.randomize(
+                firstFamily(chunk),
+                endFamily(chunk),
+                parameters.initialAltruistShare(),
+                RandomStreams.stream(seed, INITIALIZATION_GENERATION, chunk)
+        ));
+    }
+
+    GenerationStats runGeneration(ForkJoinPool pool, int generationIndex) {
+        double[] cumulative = sampler.cumulativeWeights();
+        forEachChunk(pool, chunk -> {
+            int from = firstFamily(chunk);
+            int to = endFamily(chunk);
+            StrategyTotals local = chunkTotals[chunk];
+            local.reset();
+            if (fused) {
+                chunkWeights[chunk] = population.fusedSweep(from, to, parameters, local, cumulative);
+                return;
+            }
+            population.resetFamilies(from, to, parameters.baseFitness());
+            if (interactionKernel == InteractionKernel.FAMILY_COUNT) {
+                population.playFamilyCountInteractions(from, to, parameters.benefit(), parameters.cost());
+            } else {
+                population.playKinInteractions(from, to, parameters.benefit(), parameters.cost());
+            }
+            population.finalizeFitness(from, to, parameters.relatednessWithinFamily(), local);
+            chunkWeights[chunk] = population.accumulateWeights(from, to, cumulative);
+        });
+
+        totals.reset();
+        double offset = 0.0;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            totals.merge(chunkTotals[chunk]);
+            double chunkWeight = chunkWeights[chunk];
+            chunkWeights[chunk] = offset;
+            offset += chunkWeight;
+        }
+        GenerationStats stats = totals.toGenerationStats(generationIndex);
+
+        forEachChunk(pool, chunk -> population.offsetWeights(
+                firstFamily(chunk),
+                endFamily(chunk),
+                cumulative,
+                chunkWeights[chunk]
+        ));
+        sampler.prepareFromCumulative(
+                population.size(),
+                population.familyCount(),
+                RandomStreams.stream(seed, generationIndex, GLOBAL_STREAM)
+        );
+        forEachChunk(pool, chunk -> population.breedFamilies(
+                firstFamily(chunk),
+                endFamily(chunk),
+                sampler,
+                RandomStreams.stream(seed, generationIndex, chunk),
+                parameters.mutationRate()
+        ));
+        population.swapGenerations();
+        return stats;
+    }
+
+    void countFamilies(long[] familyHistogram) {
+        population.countFamilies(familyHistogram);
+    }
+
+    private int firstFamily(int chunk) {
+        return chunk * familiesPerChunk;
+    }
+
+    private int endFamily(int chunk) {
+        return Math.min(population.familyCount(), (chunk + 1) * familiesPerChunk);
+    }
+
+    private void forEachChunk(ForkJoinPool pool, IntConsumer body) {
+        ChunkAction.forEach(pool, chunkCount, body);
+    }
+}
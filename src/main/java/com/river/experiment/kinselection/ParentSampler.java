@@ -0,0 +1,175 @@
+package com.river.experiment.kinselection;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * 每代构建一次的亲本抽样器，使全部家庭的亲本抽取总开销为 O(N) 或 O(F log N)，
+ * 取代每个家庭都线性扫描整个族群的 O(F × N) 做法。缓冲区在各代之间复用。
+ */
+final class ParentSampler {
+
+    private static final double MIN_WEIGHT = 1e-6;
+
+    private final ParentSelection selection;
+    private final double[] cumulative;
+    private double[] aliasProbability;
+    private int[] alias;
+    private int[] worklist;
+
+    private int size;
+    private double totalWeight;
+    private double systematicStep;
+    private double systematicOffset;
+    private double systematicNext;
+    private int systematicCursor;
+
+    ParentSampler(ParentSelection selection, int capacity) {
+        this.selection = selection;
+        this.cumulative = new double[capacity];
+        if (selection == ParentSelection.ALIAS_TABLE) {
+            aliasProbability = new double[capacity];
+            alias = new int[capacity];
+            worklist = new int[capacity];
+        }
+    }
+
+    static double reproductiveWeight(double inclusiveFitness) {
+        return inclusiveFitness > 0 ? inclusiveFitness : MIN_WEIGHT;
+    }
+
+    /**
+     * 根据本代包容适合度构建抽样结构。
+     *
+     * @param inclusiveFitness 各个体的包容适合度，非正值按极小正权重处理
+     * @param size             有效个体数
+     * @param draws            本代将抽取的亲本数量（即家庭数）
+     * @param random           系统重抽样所需的随机偏移量来源
+     */
+    void prepare(double[] inclusiveFitness, int size, int draws, RandomGenerator random) {
+        this.size = size;
+        double running = 0.0;
+        for (int i = 0; i < size; i++) {
+            running += reproductiveWeight(inclusiveFitness[i]);
+            cumulative[i] = running;
+        }
+        // 总权重沿用补偿求和，保证与历史版本的轮盘赌阈值一致
+        totalWeight = Arrays.stream(inclusiveFitness, 0, size)
+                .map(ParentSampler::reproductiveWeight)
+                .sum();
+        if (totalWeight <= 0) {
+            totalWeight = size;
+        }
+        finishPreparation(draws, i -> reproductiveWeight(inclusiveFitness[i]), random);
+    }
+
+    /**
+     * 供并行内核直接写入前缀和的缓冲区。
+     */
+    double[] cumulativeWeights() {
+        return cumulative;
+    }
+
+    /**
+     * 在 {@link #cumulativeWeights()} 已写好全体前缀和的前提下完成准备，总权重取前缀和末项。
+     */
+    void prepareFromCumulative(int size, int draws, RandomGenerator random) {
+        this.size = size;
+        totalWeight = cumulative[size - 1];
+        finishPreparation(draws, i -> i == 0 ? cumulative[0] : cumulative[i] - cumulative[i - 1], random);
+    }
+
+    private void finishPreparation(int draws, IntToDoubleFunction weight, RandomGenerator random) {
+        switch (selection) {
+            case ALIAS_TABLE -> buildAliasTable(weight);
+            case SYSTEMATIC -> {
+                systematicStep = cumulative[size - 1] / draws;
+                systematicOffset = random.nextDouble();
+                systematicNext = systematicOffset * systematicStep;
+                systematicCursor = 0;
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 抽取下一个亲本的下标。系统重抽样模式下按下标升序返回。
+     */
+    int next(RandomGenerator random) {
+        return switch (selection) {
+            case CUMULATIVE_SCAN -> search(random.nextDouble() * totalWeight);
+            case ALIAS_TABLE -> {
+                int column = random.nextInt(size);
+                yield random.nextDouble() < aliasProbability[column] ? column : alias[column];
+            }
+            case SYSTEMATIC -> nextSystematic();
+        };
+    }
+
+    /**
+     * 无状态地抽取第 {@code drawIndex} 个亲本，可由多个线程各自持有随机流并发调用。
+     */
+    int draw(int drawIndex, RandomGenerator random) {
+        if (selection == ParentSelection.SYSTEMATIC) {
+            return search((systematicOffset + drawIndex) * systematicStep);
+        }
+        return next(random);
+    }
+
+    private int search(double threshold) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] >= threshold) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private int nextSystematic() {
+        while (systematicCursor < size - 1 && cumulative[systematicCursor] < systematicNext) {
+            systematicCursor++;
+        }
+        systematicNext += systematicStep;
+        return systematicCursor;
+    }
+
+    private void buildAliasTable(IntToDoubleFunction weight) {
+        double scale = size / cumulative[size - 1];
+        int smallTop = 0;
+        int largeBottom = size;
+        for (int i = 0; i < size; i++) {
+            double scaled = weight.applyAsDouble(i) * scale;
+            aliasProbability[i] = scaled;
+            alias[i] = i;
+            if (scaled < 1.0) {
+                worklist[smallTop++] = i;
+            } else {
+                worklist[--largeBottom] = i;
+            }
+        }
+        // 小于 1 的列从数组头部出栈，大于等于 1 的列从尾部出栈，共用一块工作区
+        while (smallTop > 0 && largeBottom < size) {
+            int small = worklist[--smallTop];
+            int large = worklist[largeBottom];
+            alias[small] = large;
+            aliasProbability[large] = (aliasProbability[large] + aliasProbability[small]) - 1.0;
+            if (aliasProbability[large] < 1.0) {
+                largeBottom++;
+                worklist[smallTop++] = large;
+            }
+        }
+        while (largeBottom < size) {
+            aliasProbability[worklist[largeBottom++]] = 1.0;
+        }
+        while (smallTop > 0) {
+            aliasProbability[worklist[--smallTop]] = 1.0;
+        }
+    }
+}
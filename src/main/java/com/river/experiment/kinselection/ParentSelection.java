@@ -0,0 +1,25 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 繁殖时按包容适合度抽取家庭创始亲本的方式。
+ */
+public enum ParentSelection {
+
+    /**
+     * 每个家庭独立做一次轮盘赌（逆累积分布）抽样，与历史版本的结果逐位一致。
+     * 累积权重每代只构建一次，单次抽样为二分查找。
+     */
+    CUMULATIVE_SCAN,
+
+    /**
+     * Walker/Vose 别名表：每代 O(N) 建表，之后每个家庭 O(1) 独立抽样，
+     * 抽样分布与 {@link #CUMULATIVE_SCAN} 相同但随机数序列不同。
+     */
+    ALIAS_TABLE,
+
+    /**
+     * 系统（随机普遍）重抽样：只用一个随机偏移量，沿累积权重等距取点，全部亲本一次扫描完成。
+     * 期望后代数与权重成正比，但方差更小，相当于削弱了遗传漂变。
+     */
+    SYSTEMATIC
+}
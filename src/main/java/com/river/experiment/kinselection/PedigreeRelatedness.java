@@ -0,0 +1,82 @@
+package com.river.experiment.kinselection;
+
+import java.util.Arrays;
+
+/**
+ * 按谱系递推的家庭内相关系数，只保存当前代与正在生成的下一代两层。
+ * <p>
+ * 每户是一个 familySize × familySize 的对称矩阵，只存严格上三角：第 i 行存放 j &gt; i 的各项，
+ * 行指针 {@code rowStart} 对所有家庭共用（CSR 形式），整代存放在一个扁平数组中。
+ * 跨户的相关系数视为 0，因此内存与每代开销都与族群规模成正比。
+ */
+final class PedigreeRelatedness {
+
+    private final int familySize;
+    private final int pairsPerFamily;
+    private final int[] rowStart;
+    private final double linkRelatedness;
+    private double[] current;
+    private double[] next;
+
+    /**
+     * 初始各户视为由同一亲本创立，户内两两相关系数均为 ρ。
+     */
+    PedigreeRelatedness(int familyCount, int familySize, double linkRelatedness) {
+        this.familySize = familySize;
+        this.pairsPerFamily = familySize * (familySize - 1) / 2;
+        this.rowStart = new int[familySize];
+        for (int i = 1; i < familySize; i++) {
+            rowStart[i] = rowStart[i - 1] + familySize - i;
+        }
+        this.linkRelatedness = linkRelatedness;
+        this.current = new double[familyCount * pairsPerFamily];
+        this.next = new double[familyCount * pairsPerFamily];
+        Arrays.fill(current, linkRelatedness);
+    }
+
+    double relatedness(int family, int i, int j) {
+        if (i == j) {
+            return 1.0;
+        }
+        return current[index(family, Math.min(i, j), Math.max(i, j))];
+    }
+
+    /**
+     * 第 {@code member} 名成员与户内其他成员的相关系数之和。
+     */
+    double kinshipSum(int family, int member) {
+        double sum = 0.0;
+        for (int other = 0; other < familySize; other++) {
+            if (other != member) {
+                sum += relatedness(family, member, other);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 记录下一代第 {@code family} 户：其成员的亲本都来自当前代第 {@code household} 户，
+     * {@code parents[i]} 为第 i 个孩子的亲本在该户中的位置。
+     */
+    void inherit(int family, int household, int[] parents) {
+        int base = family * pairsPerFamily;
+        for (int i = 0; i < familySize; i++) {
+            int row = base + rowStart[i] - i - 1;
+            for (int j = i + 1; j < familySize; j++) {
+                next[row + j] = parents[i] == parents[j]
+                        ? linkRelatedness
+                        : linkRelatedness * relatedness(household, parents[i], parents[j]);
+            }
+        }
+    }
+
+    void swapGenerations() {
+        double[] previous = current;
+        current = next;
+        next = previous;
+    }
+
+    private int index(int family, int i, int j) {
+        return family * pairsPerFamily + rowStart[i] + (j - i - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 族群在内存中的存储方式。
+ */
+public enum PopulationBackend {
+
+    /**
+     * 每个个体对应一个 {@link Agent} 对象，便于阅读与调试，适合中小规模族群。
+     */
+    OBJECTS,
+
+    /**
+     * 列式存储：策略存为 {@code byte[]}，适合度与收支存为并列的 {@code double[]}，
+     * 家庭编号由下标隐含，每代只做线性数组扫描且不再为个体分配对象。
+     */
+    COLUMNAR,
+
+    /**
+     * 只保存“含 k 名利他者的家庭数”直方图，用二项/多项分布整体推进一代，
+     * 内存与族群规模无关。互动按 {@link InteractionKernel#FAMILY_COUNT} 的闭式结果计算，
+     * 亲本为独立抽样，不支持 {@link ParentSelection#SYSTEMATIC} 与并行模式。
+     */
+    FAMILY_HISTOGRAM
+}
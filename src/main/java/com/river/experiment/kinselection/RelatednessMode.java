@@ -0,0 +1,19 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 包容适合度中亲缘相关系数的来源。
+ */
+public enum RelatednessMode {
+
+    /**
+     * 家庭内任意两人的相关系数都取 {@link SimulationParameters#relatednessWithinFamily()}，与历史版本一致。
+     */
+    CONSTANT,
+
+    /**
+     * 按真实谱系逐代递推：每户由一户亲代家庭繁衍，户内每个孩子在该户中按繁殖权重各自挑选亲本。
+     * 同一亲本的两个孩子相关系数为 ρ，不同亲本的孩子为 ρ 乘以两位亲本之间的相关系数，
+     * ρ 取 {@link SimulationParameters#relatednessWithinFamily()}。仅支持单线程、非融合的列式存储。
+     */
+    PEDIGREE
+}
@@ -14,6 +14,7 @@ public final class SimulationParameters {
     private final double mutationRate;
     private final double relatednessWithinFamily;
     private final double initialAltruistShare;
+    private final RelatednessMode relatednessMode;
 
     public SimulationParameters(int populationSize,
                                 int familySize,
@@ -24,6 +25,34 @@ public final class SimulationParameters {
                                 double mutationRate,
                                 double relatednessWithinFamily,
                                 double initialAltruistShare) {
+        this(
+                populationSize,
+                familySize,
+                generations,
+                baseFitness,
+                benefit,
+                cost,
+                mutationRate,
+                relatednessWithinFamily,
+                initialAltruistShare,
+                RelatednessMode.CONSTANT
+        );
+    }
+
+    /**
+     * @param relatednessMode 相关系数取常数还是按谱系递推；谱系模式下 {@code relatednessWithinFamily}
+     *                        表示同一亲本的两个孩子之间的相关系数
+     */
+    public SimulationParameters(int populationSize,
+                                int familySize,
+                                int generations,
+                                double baseFitness,
+                                double benefit,
+                                double cost,
+                                double mutationRate,
+                                double relatednessWithinFamily,
+                                double initialAltruistShare,
+                                RelatednessMode relatednessMode) {
         if (populationSize <= 0) {
             throw new IllegalArgumentException("人口规模必须为正数。");
         }
@@ -51,6 +80,9 @@ public final class SimulationParameters {
         if (initialAltruistShare < 0 || initialAltruistShare > 1) {
             throw new IllegalArgumentException("初始利他者占比需介于 0 与 1 之间。");
         }
+        if (relatednessMode == null) {
+            throw new IllegalArgumentException("相关系数模式不能为空。");
+        }
         this.populationSize = populationSize;
         this.familySize = familySize;
         this.generations = generations;
@@ -60,6 +92,7 @@ public final class SimulationParameters {
         this.mutationRate = mutationRate;
         this.relatednessWithinFamily = relatednessWithinFamily;
         this.initialAltruistShare = initialAltruistShare;
+        this.relatednessMode = relatednessMode;
     }
 
     public int populationSize() {
@@ -101,4 +134,8 @@ public final class SimulationParameters {
     public double initialAltruistShare() {
         return initialAltruistShare;
     }
+
+    public RelatednessMode relatednessMode() {
+        return relatednessMode;
+    }
 }
@@ -2,23 +2,57 @@ package com.river.experiment.kinselection;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
- * 封装模拟结果，包含历代统计信息。
+ * 封装模拟结果，包含按保留策略留存的历代统计信息。
  */
 public final class SimulationResult {
 
     private final List<GenerationStats> generations;
+    private final GenerationStats lastGeneration;
+    private final int generationCount;
+    private final FixationEvent fixationEvent;
 
     SimulationResult(List<GenerationStats> generations) {
+        this(generations, generations.get(generations.size() - 1), generations.size(), null);
+    }
+
+    SimulationResult(List<GenerationStats> generations,
+                     GenerationStats lastGeneration,
+                     int generationCount,
+                     FixationEvent fixationEvent) {
         this.generations = List.copyOf(generations);
+        this.lastGeneration = lastGeneration;
+        this.generationCount = generationCount;
+        this.fixationEvent = fixationEvent;
     }
 
+    /**
+     * 按 {@link StatsRetention} 保留下来的代，默认即全部代。
+     */
     public List<GenerationStats> generations() {
         return Collections.unmodifiableList(generations);
     }
 
+    /**
+     * 实际模拟的最后一代，不受保留策略影响。
+     */
     public GenerationStats lastGeneration() {
-        return generations.get(generations.size() - 1);
+        return lastGeneration;
+    }
+
+    /**
+     * 结果覆盖的总代数，不受保留策略影响；{@link FixationPolicy#STOP_AT_FIXATION} 提前停止时小于参数中的代数。
+     */
+    public int generationCount() {
+        return generationCount;
+    }
+
+    /**
+     * 检测到的吸收态或准平稳态；{@link FixationPolicy#RUN_ALL} 或未检测到时为空。
+     */
+    public Optional<FixationEvent> fixationEvent() {
+        return Optional.ofNullable(fixationEvent);
     }
 }
@@ -0,0 +1,16 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 多级分裂中的一级：从上一级的入口状态出发的轨迹，有多少在灭绝前达到本级阈值。
+ *
+ * @param altruistThreshold 本级阈值（利他者人数），最后一级等于族群规模，即固定
+ */
+public record SplittingLevel(int altruistThreshold, int trajectories, int successes) {
+
+    /**
+     * 条件概率估计 {@code successes / trajectories}。
+     */
+    public double probability() {
+        return (double) successes / trajectories;
+    }
+}
@@ -0,0 +1,185 @@
+package com.river.experiment.kinselection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@link SimulationResult} 中保留哪些代的统计。策略对象本身不可变，每次运行各自创建记录器。
+ * 无论保留哪些代，结果中的最后一代与总代数始终准确。
+ */
+public final class StatsRetention {
+
+    private enum Kind {
+        ALL,
+        EVERY_KTH,
+        RESERVOIR,
+        TAIL
+    }
+
+    private final Kind kind;
+    private final int parameter;
+    private final long seed;
+
+    private StatsRetention(Kind kind, int parameter, long seed) {
+        this.kind = kind;
+        this.parameter = parameter;
+        this.seed = seed;
+    }
+
+    /**
+     * 保留每一代，与历史版本行为一致。
+     */
+    public static StatsRetention keepAll() {
+        return new StatsRetention(Kind.ALL, 0, 0L);
+    }
+
+    /**
+     * 只保留代数能被 {@code k} 整除的代，适合按固定间隔绘图。
+     */
+    public static StatsRetention everyKth(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("抽样间隔必须为正数。");
+        }
+        return new StatsRetention(Kind.EVERY_KTH, k, 0L);
+    }
+
+    /**
+     * 蓄水池抽样：等概率保留至多 {@code capacity} 代，结果按代数排序。
+     */
+    public static StatsRetention reservoir(int capacity, long seed) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("蓄水池容量必须为正数。");
+        }
+        return new StatsRetention(Kind.RESERVOIR, capacity, seed);
+    }
+
+    /**
+     * 只保留最近的 {@code capacity} 代。
+     */
+    public static StatsRetention tail(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("保留代数必须为正数。");
+        }
+        return new StatsRetention(Kind.TAIL, capacity, 0L);
+    }
+
+    Retainer newRetainer(int expectedGenerations) {
+        return switch (kind) {
+            case ALL -> new KeepAll(expectedGenerations);
+            case EVERY_KTH -> new EveryKth(parameter, expectedGenerations);
+            case RESERVOIR -> new Reservoir(parameter, seed);
+            case TAIL -> new Tail(parameter);
+        };
+    }
+
+    /**
+     * 单次运行内的有状态记录器。
+     */
+    abstract static class Retainer implements GenerationListener {
+
+        abstract List<GenerationStats> retained();
+    }
+
+    private static final class KeepAll extends Retainer {
+
+        private final List<GenerationStats> generations;
+
+        KeepAll(int expectedGenerations) {
+            this.generations = new ArrayList<>(expectedGenerations);
+        }
+
+        @Override
+        public void onGeneration(GenerationStats stats) {
+            generations.add(stats);
+        }
+
+        @Override
+        List<GenerationStats> retained() {
+            return generations;
+        }
+    }
+
+    private static final class EveryKth extends Retainer {
+
+        private final int interval;
+        private final List<GenerationStats> generations;
+
+        EveryKth(int interval, int expectedGenerations) {
+            this.interval = interval;
+            this.generations = new ArrayList<>(expectedGenerations / interval + 1);
+        }
+
+        @Override
+        public void onGeneration(GenerationStats stats) {
+            if (stats.generation() % interval == 0) {
+                generations.add(stats);
+            }
+        }
+
+        @Override
+        List<GenerationStats> retained() {
+            return generations;
+        }
+    }
+
+    private static final class Reservoir extends Retainer {
+
+        private final int capacity;
+        private final Random random;
+        private final List<GenerationStats> generations;
+        private long seen;
+
+        Reservoir(int capacity, long seed) {
+            this.capacity = capacity;
+            this.random = new Random(seed);
+            this.generations = new ArrayList<>(capacity);
+        }
+
+        @Override
+        public void onGeneration(GenerationStats stats) {
+            seen++;
+            if (generations.size() < capacity) {
+                generations.add(stats);
+                return;
+            }
+            long slot = random.nextLong(seen);
+            if (slot < capacity) {
+                generations.set((int) slot, stats);
+            }
+        }
+
+        @Override
+        List<GenerationStats> retained() {
+            List<GenerationStats> sorted = new ArrayList<>(generations);
+            sorted.sort(Comparator.comparingInt(GenerationStats::generation));
+            return sorted;
+        }
+    }
+
+    private static final class Tail extends Retainer {
+
+        private final int capacity;
+        private final ArrayDeque<GenerationStats> generations;
+
+        Tail(int capacity) {
+            this.capacity = capacity;
+            this.generations = new ArrayDeque<>(capacity);
+        }
+
+        @Override
+        public void onGeneration(GenerationStats stats) {
+            if (generations.size() == capacity) {
+                generations.removeFirst();
+            }
+            generations.addLast(stats);
+        }
+
+        @Override
+        List<GenerationStats> retained() {
+            return new ArrayList<>(generations);
+        }
+    }
+}
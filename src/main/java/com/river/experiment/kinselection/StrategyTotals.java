@@ -0,0 +1,108 @@
+package com.river.experiment.kinselection;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+
+/**
+ * 按策略序号累加的统计量，用原始数组代替每代新建的累加对象。
+ */
+final class StrategyTotals {
+
+    private static final Strategy[] STRATEGIES = Strategy.values();
+
+    private final int[] counts = new int[STRATEGIES.length];
+    private final double[] direct = new double[STRATEGIES.length];
+    private final double[] inclusive = new double[STRATEGIES.length];
+    private final double[] given = new double[STRATEGIES.length];
+    private final double[] received = new double[STRATEGIES.length];
+
+    void add(int strategyOrdinal,
+             double directFitness,
+             double inclusiveFitness,
+             double benefitGiven,
+             double benefitReceived) {
+        counts[strategyOrdinal]++;
+        direct[strategyOrdinal] += directFitness;
+        inclusive[strategyOrdinal] += inclusiveFitness;
+        given[strategyOrdinal] += benefitGiven;
+        received[strategyOrdinal] += benefitReceived;
+    }
+
+    /**
+     * 一次累加 {@code members} 名指标完全相同的个体，供按家庭闭式结算的内核使用。
+     */
+    void addMembers(int strategyOrdinal,
+                    int members,
+                    double directFitness,
+                    double inclusiveFitness,
+                    double benefitGiven,
+                    double benefitReceived) {
+        if (members == 0) {
+            return;
+        }
+        counts[strategyOrdinal] += members;
+        direct[strategyOrdinal] += members * directFitness;
+        inclusive[strategyOrdinal] += members * inclusiveFitness;
+        given[strategyOrdinal] += members * benefitGiven;
+        received[strategyOrdinal] += members * benefitReceived;
+    }
+
+    /**
+     * 累加另一族群某代的统计，按人数把平均值还原为总和，供岛屿模型合并各岛使用。
+     */
+    void addStats(GenerationStats stats) {
+        for (StrategySnapshot snapshot : stats.snapshots().values()) {
+            addMembers(
+                    snapshot.strategy().ordinal(),
+                    snapshot.count(),
+                    snapshot.averageDirectFitness(),
+                    snapshot.averageInclusiveFitness(),
+                    snapshot.averageBenefitGiven(),
+                    snapshot.averageBenefitReceived()
+            );
+        }
+    }
+
+    void merge(StrategyTotals other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+            direct[i] += other.direct[i];
+            inclusive[i] += other.inclusive[i];
+            given[i] += other.given[i];
+            received[i] += other.received[i];
+        }
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(direct, 0.0);
+        Arrays.fill(inclusive, 0.0);
+        Arrays.fill(given, 0.0);
+        Arrays.fill(received, 0.0);
+    }
+
+    int count(Strategy strategy) {
+        return counts[strategy.ordinal()];
+    }
+
+    GenerationStats toGenerationStats(int generationIndex) {
+        EnumMap<Strategy, StrategySnapshot> snapshots = new EnumMap<>(Strategy.class);
+        for (Strategy strategy : STRATEGIES) {
+            int index = strategy.ordinal();
+            int count = counts[index];
+            if (count == 0) {
+                snapshots.put(strategy, new StrategySnapshot(strategy, 0, 0, 0, 0, 0));
+            } else {
+                snapshots.put(strategy, new StrategySnapshot(
+                        strategy,
+                        count,
+                        direct[index] / count,
+                        inclusive[index] / count,
+                        given[index] / count,
+                        received[index] / count
+                ));
+            }
+        }
+        return new GenerationStats(generationIndex, snapshots);
+    }
+}
@@ -0,0 +1,30 @@
+package com.river.experiment.kinselection;
+
+/**
+ * 参数扫描中的一条坐标轴：在 {@code [from, to]} 上等距取 {@code points} 个值（只取一个点时为 {@code from}）。
+ */
+public record SweepAxis(double from, double to, int points) {
+
+    public SweepAxis {
+        if (points <= 0) {
+            throw new IllegalArgumentException("扫描点数必须为正数。");
+        }
+        if (!Double.isFinite(from) || !Double.isFinite(to)) {
+            throw new IllegalArgumentException("扫描区间必须为有限值。");
+        }
+    }
+
+    /**
+     * 固定在单个值上的坐标轴。
+     */
+    public static SweepAxis fixed(double value) {
+        return new SweepAxis(value, value, 1);
+    }
+
+    public double value(int index) {
+        if (points == 1) {
+            return from;
+        }
+        return from + (to - from) * index / (points - 1);
+    }
+}